@@ -0,0 +1,55 @@
+package com.productordering.notificationservice.application.analytics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Log-scale latency sketch used by the notification rollups.
+ * Bucket 0 holds latencies up to 1ms and bucket i covers (1.1^(i-1), 1.1^i] ms,
+ * so percentiles read back are within 10% of the true value. Sketches merge by
+ * adding bucket counts, which is what lets the writer maintain them with $inc.
+ */
+public final class LatencyHistogram {
+    
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    
+    private LatencyHistogram() {
+    }
+    
+    public static int bucketFor(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(millis) / LOG_GROWTH);
+    }
+    
+    public static long upperBoundMillis(int bucket) {
+        if (bucket <= 0) {
+            return 1;
+        }
+        return (long) Math.ceil(Math.pow(GROWTH, bucket));
+    }
+    
+    public static long percentile(Map<String, Long> buckets, double quantile) {
+        TreeMap<Integer, Long> sorted = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, Long> entry : buckets.entrySet()) {
+            sorted.merge(Integer.parseInt(entry.getKey()), entry.getValue(), Long::sum);
+            total += entry.getValue();
+        }
+        if (total == 0) {
+            return 0;
+        }
+        
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : sorted.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return upperBoundMillis(entry.getKey());
+            }
+        }
+        return upperBoundMillis(sorted.lastKey());
+    }
+}
@@ -0,0 +1,79 @@
+package com.productordering.notificationservice.application.analytics;
+
+import com.productordering.notificationservice.domain.entities.NotificationRollup;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import com.productordering.notificationservice.domain.repositories.NotificationRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves dashboard queries from the pre-aggregated rollups, so the cost depends on
+ * the number of buckets in the window rather than the size of the notifications collection.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationAnalyticsService {
+    
+    private final NotificationRollupRepository rollupRepository;
+    
+    public NotificationAnalyticsSummary getSummary(NotificationType type, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        
+        List<NotificationRollup> rollups = type != null
+            ? rollupRepository.findByTypeAndBucketStartGreaterThanEqualAndBucketStartLessThan(type, from, to)
+            : rollupRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThan(from, to);
+        
+        NotificationAnalyticsSummary summary = new NotificationAnalyticsSummary();
+        summary.setType(type);
+        summary.setFrom(from);
+        summary.setTo(to);
+        
+        Map<String, Long> latencyBuckets = new HashMap<>();
+        Map<Instant, NotificationAnalyticsSummary.BucketCounts> series = new TreeMap<>();
+        long latencyCount = 0;
+        long latencySum = 0;
+        long latencyMax = 0;
+        
+        for (NotificationRollup rollup : rollups) {
+            summary.setTotal(summary.getTotal() + rollup.getCount());
+            summary.getCountsByStatus().merge(rollup.getStatus(), rollup.getCount(), Long::sum);
+            
+            series.computeIfAbsent(rollup.getBucketStart(), bucketStart -> {
+                    NotificationAnalyticsSummary.BucketCounts counts = new NotificationAnalyticsSummary.BucketCounts();
+                    counts.setBucketStart(bucketStart);
+                    return counts;
+                })
+                .getCounts().merge(rollup.getStatus(), rollup.getCount(), Long::sum);
+            
+            latencyCount += rollup.getLatencyCount();
+            latencySum += rollup.getLatencySumMillis();
+            latencyMax = Math.max(latencyMax, rollup.getLatencyMaxMillis());
+            if (rollup.getLatencyBuckets() != null) {
+                rollup.getLatencyBuckets().forEach((bucket, count) -> latencyBuckets.merge(bucket, count, Long::sum));
+            }
+        }
+        
+        NotificationAnalyticsSummary.LatencySummary latency = summary.getLatency();
+        latency.setCount(latencyCount);
+        latency.setMaxMillis(latencyMax);
+        if (latencyCount > 0) {
+            latency.setAvgMillis(latencySum / latencyCount);
+            // Bucket upper bounds can overshoot the observed maximum
+            latency.setP50Millis(Math.min(latencyMax, LatencyHistogram.percentile(latencyBuckets, 0.50)));
+            latency.setP90Millis(Math.min(latencyMax, LatencyHistogram.percentile(latencyBuckets, 0.90)));
+            latency.setP95Millis(Math.min(latencyMax, LatencyHistogram.percentile(latencyBuckets, 0.95)));
+            latency.setP99Millis(Math.min(latencyMax, LatencyHistogram.percentile(latencyBuckets, 0.99)));
+        }
+        
+        summary.getBuckets().addAll(series.values());
+        return summary;
+    }
+}
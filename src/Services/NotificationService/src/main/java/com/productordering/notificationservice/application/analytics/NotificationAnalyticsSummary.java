@@ -0,0 +1,39 @@
+package com.productordering.notificationservice.application.analytics;
+
+import com.productordering.notificationservice.domain.enums.NotificationStatus;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class NotificationAnalyticsSummary {
+    private NotificationType type;
+    private Instant from;
+    private Instant to;
+    private long total;
+    private Map<NotificationStatus, Long> countsByStatus = new EnumMap<>(NotificationStatus.class);
+    private LatencySummary latency = new LatencySummary();
+    private List<BucketCounts> buckets = new ArrayList<>();
+    
+    @Data
+    public static class LatencySummary {
+        private long count;
+        private long avgMillis;
+        private long p50Millis;
+        private long p90Millis;
+        private long p95Millis;
+        private long p99Millis;
+        private long maxMillis;
+    }
+    
+    @Data
+    public static class BucketCounts {
+        private Instant bucketStart;
+        private Map<NotificationStatus, Long> counts = new EnumMap<>(NotificationStatus.class);
+    }
+}
@@ -0,0 +1,7 @@
+package com.productordering.notificationservice.application.analytics;
+
+import com.productordering.notificationservice.domain.entities.Notification;
+
+public interface NotificationRollupRecorder {
+    void record(Notification notification);
+}
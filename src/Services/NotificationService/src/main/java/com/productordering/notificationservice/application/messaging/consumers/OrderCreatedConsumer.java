@@ -1,6 +1,7 @@
 package com.productordering.notificationservice.application.messaging.consumers;
 
 import com.productordering.notificationservice.application.messaging.events.OrderCreatedEvent;
+import com.productordering.notificationservice.application.services.NotificationReminderService;
 import com.productordering.notificationservice.application.services.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 public class OrderCreatedConsumer {
     
     private final NotificationService notificationService;
+    private final NotificationReminderService reminderService;
     
     @RabbitListener(queues = "${rabbitmq.queues.order-created}")
     public void handleOrderCreated(OrderCreatedEvent event) {
@@ -20,6 +22,9 @@ public class OrderCreatedConsumer {
             event.getOrderId(), event.getCustomerId(), event.getTotalAmount());
         
         try {
+            // Reminder bookkeeping runs before the email is dispatched, so a failure here is
+            // redelivered without the confirmation email having gone out
+            reminderService.scheduleOrderPendingReminder(event);
             notificationService.sendOrderConfirmationEmail(event);
         } catch (Exception ex) {
             log.error("Error processing OrderCreatedEvent for Order ID: {}", 
@@ -0,0 +1,30 @@
+package com.productordering.notificationservice.application.messaging.consumers;
+
+import com.productordering.notificationservice.application.parkinglot.ParkingLotService;
+import com.productordering.notificationservice.domain.entities.ParkedMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParkingLotConsumer {
+    
+    private final ParkingLotService parkingLotService;
+    
+    @RabbitListener(queues = "${rabbitmq.queues.parking-lot}")
+    public void handleParkedMessage(Message message) {
+        try {
+            ParkedMessage parked = parkingLotService.park(message);
+            log.info("Parked message {} from {} ({}: {})", 
+                parked.getId(), parked.getOriginalQueue(), parked.getExceptionType(), parked.getExceptionMessage());
+        } catch (Exception ex) {
+            log.error("Error storing parked message {}", 
+                message.getMessageProperties().getMessageId(), ex);
+            throw ex; // Re-throw so the message is held on the parking-lot delay queue and retried
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.productordering.notificationservice.application.messaging.consumers;
 
 import com.productordering.notificationservice.application.messaging.events.PaymentFailedEvent;
+import com.productordering.notificationservice.application.services.NotificationReminderService;
 import com.productordering.notificationservice.application.services.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 public class PaymentFailedConsumer {
     
     private final NotificationService notificationService;
+    private final NotificationReminderService reminderService;
     
     @RabbitListener(queues = "${rabbitmq.queues.payment-failed}")
     public void handlePaymentFailed(PaymentFailedEvent event) {
@@ -20,6 +22,7 @@ public class PaymentFailedConsumer {
             event.getOrderId(), event.getPaymentId(), event.getReason());
         
         try {
+            reminderService.schedulePaymentReminder(event);
             notificationService.sendPaymentFailedEmail(event);
         } catch (Exception ex) {
             log.error("Error processing PaymentFailedEvent for Order ID: {}", 
@@ -1,6 +1,7 @@
 package com.productordering.notificationservice.application.messaging.consumers;
 
 import com.productordering.notificationservice.application.messaging.events.PaymentProcessedEvent;
+import com.productordering.notificationservice.application.services.NotificationReminderService;
 import com.productordering.notificationservice.application.services.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 public class PaymentProcessedConsumer {
     
     private final NotificationService notificationService;
+    private final NotificationReminderService reminderService;
     
     @RabbitListener(queues = "${rabbitmq.queues.payment-processed}")
     public void handlePaymentProcessed(PaymentProcessedEvent event) {
@@ -20,6 +22,7 @@ public class PaymentProcessedConsumer {
             event.getOrderId(), event.getPaymentId(), event.getAmount(), event.getCurrency());
         
         try {
+            reminderService.cancelOrderReminders(event.getOrderId());
             notificationService.sendPaymentSuccessEmail(event);
         } catch (Exception ex) {
             log.error("Error processing PaymentProcessedEvent for Order ID: {}", 
@@ -0,0 +1,28 @@
+package com.productordering.notificationservice.application.messaging.events;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class NotificationSentEvent {
+    @JsonProperty("notificationId")
+    private String notificationId;
+    
+    @JsonProperty("orderId")
+    private UUID orderId;
+    
+    @JsonProperty("userId")
+    private UUID userId;
+    
+    @JsonProperty("notificationType")
+    private String notificationType;
+    
+    @JsonProperty("recipient")
+    private String recipient;
+    
+    @JsonProperty("sentAt")
+    private Instant sentAt;
+}
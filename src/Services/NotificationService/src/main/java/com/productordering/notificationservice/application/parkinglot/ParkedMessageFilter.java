@@ -0,0 +1,17 @@
+package com.productordering.notificationservice.application.parkinglot;
+
+import com.productordering.notificationservice.domain.enums.ParkedMessageStatus;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class ParkedMessageFilter {
+    private List<String> ids;
+    private String queue;
+    private String exceptionType;
+    private ParkedMessageStatus status;
+    private Instant from;
+    private Instant to;
+}
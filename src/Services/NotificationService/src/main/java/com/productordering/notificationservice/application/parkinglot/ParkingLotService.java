@@ -0,0 +1,507 @@
+package com.productordering.notificationservice.application.parkinglot;
+
+import com.productordering.notificationservice.domain.entities.ParkedMessage;
+import com.productordering.notificationservice.domain.enums.ParkedMessageStatus;
+import com.productordering.notificationservice.domain.repositories.ParkedMessageRepository;
+import com.productordering.notificationservice.infrastructure.messaging.ConfirmedPublisher;
+import com.productordering.notificationservice.infrastructure.messaging.DelayedRetryInterceptor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Stores messages arriving on the parking-lot queue and replays them to their original
+ * queue on request. Replays run one at a time per replica, paced to the requested rate,
+ * and pause while the target queue already has a backlog so replayed events cannot crowd
+ * out live traffic or flood the email provider.
+ * <p>
+ * Each parked message is claimed (PARKED to REPLAYING) before it is sent, so replays
+ * started on several replicas over the same filter never send a message twice. Replays
+ * page through the collection by (parkedAt, _id) rather than holding a cursor open, so a
+ * long capacity pause cannot outlive the server's cursor timeout.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParkingLotService {
+
+    // Headers added by the retry/parking pipeline are not kept, so a replay starts with fresh attempts
+    private static final Set<String> PIPELINE_HEADERS = Set.of(
+        DelayedRetryInterceptor.RETRY_COUNT_HEADER,
+        DelayedRetryInterceptor.ORIGINAL_QUEUE_HEADER,
+        DelayedRetryInterceptor.EXCEPTION_TYPE_HEADER,
+        DelayedRetryInterceptor.EXCEPTION_MESSAGE_HEADER,
+        DelayedRetryInterceptor.FAILED_AT_HEADER,
+        "x-death",
+        "x-first-death-exchange",
+        "x-first-death-queue",
+        "x-first-death-reason",
+        "x-last-death-exchange",
+        "x-last-death-queue",
+        "x-last-death-reason");
+
+    private static final int MAX_LISTED_REPLAYS = 100;
+
+    private final ParkedMessageRepository parkedMessageRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ConfirmedPublisher confirmedPublisher;
+    private final AmqpAdmin amqpAdmin;
+
+    @Value("${rabbitmq.replay.default-rate:20}")
+    private int defaultRate;
+
+    @Value("${rabbitmq.replay.max-rate:200}")
+    private int maxRate;
+
+    @Value("${rabbitmq.replay.max-queue-depth:1000}")
+    private long maxQueueDepth;
+
+    @Value("${rabbitmq.replay.capacity-check-interval:50}")
+    private int capacityCheckInterval;
+
+    @Value("${rabbitmq.replay.page-size:100}")
+    private int replayPageSize;
+
+    @Value("${rabbitmq.replay.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    @Value("${rabbitmq.replay.job-retention:7d}")
+    private Duration jobRetention;
+
+    @Value("${rabbitmq.replay.max-page-size:500}")
+    private int maxPageSize;
+
+    // Jobs queued or running on this replica; finished jobs only live in MongoDB
+    private final Map<String, ReplayJob> localJobs = new ConcurrentHashMap<>();
+    private ExecutorService replayExecutor;
+    private volatile boolean indexesEnsured;
+
+    @PostConstruct
+    public void init() {
+        replayExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("parking-lot-replay").daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        localJobs.values().forEach(job -> job.setCancelRequested(true));
+        replayExecutor.shutdownNow();
+        localJobs.values().stream()
+            .filter(job -> job.getStatus() == ReplayJob.Status.QUEUED)
+            .forEach(job -> finish(job, ReplayJob.Status.CANCELLED));
+    }
+
+    public ParkedMessage park(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        Map<String, Object> headers = new HashMap<>();
+        properties.getHeaders().forEach((name, value) -> {
+            if (!PIPELINE_HEADERS.contains(name) && value != null) {
+                headers.put(name, value);
+            }
+        });
+
+        Object attempts = properties.getHeader(DelayedRetryInterceptor.RETRY_COUNT_HEADER);
+        Object failedAt = properties.getHeader(DelayedRetryInterceptor.FAILED_AT_HEADER);
+        Object originalQueue = properties.getHeader(DelayedRetryInterceptor.ORIGINAL_QUEUE_HEADER);
+        Object exceptionType = properties.getHeader(DelayedRetryInterceptor.EXCEPTION_TYPE_HEADER);
+        Object exceptionMessage = properties.getHeader(DelayedRetryInterceptor.EXCEPTION_MESSAGE_HEADER);
+
+        ParkedMessage parked = ParkedMessage.create(
+            properties.getMessageId(),
+            originalQueue != null ? originalQueue.toString() : null,
+            properties.getContentType(),
+            headers,
+            message.getBody(),
+            exceptionType != null ? exceptionType.toString() : null,
+            exceptionMessage != null ? exceptionMessage.toString() : null,
+            attempts instanceof Number number ? number.intValue() : 0,
+            parseInstant(failedAt)
+        );
+
+        // Upserting by the derived id stores a redelivered parking-lot message once, and parks a
+        // message that failed again after a replay on its existing document
+        Update update = new Update()
+            .set("messageId", parked.getMessageId())
+            .set("originalQueue", parked.getOriginalQueue())
+            .set("contentType", parked.getContentType())
+            .set("headers", parked.getHeaders())
+            .set("body", parked.getBody())
+            .set("exceptionType", parked.getExceptionType())
+            .set("exceptionMessage", parked.getExceptionMessage())
+            .set("attempts", parked.getAttempts())
+            .set("status", ParkedMessageStatus.PARKED)
+            .set("failedAt", parked.getFailedAt())
+            .set("parkedAt", parked.getParkedAt())
+            .unset("replayJobId")
+            .unset("replayClaimedAt")
+            .setOnInsert("replayCount", 0);
+
+        ensureIndexes();
+        mongoTemplate.upsert(new Query(where("_id").is(parked.getId())), update, ParkedMessage.class);
+        return parked;
+    }
+
+    public List<ParkedMessage> find(ParkedMessageFilter filter, int limit) {
+        Query query = new Query(toCriteria(filter))
+            .with(Sort.by(Sort.Direction.DESC, "parkedAt"))
+            .limit(Math.max(1, Math.min(limit, maxPageSize)));
+        return mongoTemplate.find(query, ParkedMessage.class);
+    }
+
+    public long count(ParkedMessageFilter filter) {
+        return mongoTemplate.count(new Query(toCriteria(filter)), ParkedMessage.class);
+    }
+
+    public Optional<ParkedMessage> findById(String id) {
+        return parkedMessageRepository.findById(id);
+    }
+
+    public ReplayJob startReplay(ReplayRequest request) {
+        int rate = request.getRatePerSecond() != null ? request.getRatePerSecond() : defaultRate;
+        if (rate <= 0 || rate > maxRate) {
+            throw new IllegalArgumentException("ratePerSecond must be between 1 and " + maxRate);
+        }
+
+        ParkedMessageFilter filter = copy(request.getFilter());
+        if (filter.getStatus() != null && filter.getStatus() != ParkedMessageStatus.PARKED) {
+            throw new IllegalArgumentException("Only PARKED messages can be replayed");
+        }
+        filter.setStatus(ParkedMessageStatus.PARKED);
+
+        ensureIndexes();
+        ReplayJob job = ReplayJob.create(filter, rate, request.getLimit());
+        mongoTemplate.insert(job);
+        localJobs.put(job.getId(), job);
+        replayExecutor.submit(() -> runReplay(job));
+        log.info("Queued parking lot replay {} at {} msg/s", job.getId(), rate);
+        return job;
+    }
+
+    public Optional<ReplayJob> getReplay(String jobId) {
+        return Optional.ofNullable(mongoTemplate.findById(jobId, ReplayJob.class));
+    }
+
+    public List<ReplayJob> getReplays() {
+        Query query = new Query()
+            .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+            .limit(MAX_LISTED_REPLAYS);
+        return mongoTemplate.find(query, ReplayJob.class);
+    }
+
+    public Optional<ReplayJob> cancelReplay(String jobId) {
+        ReplayJob local = localJobs.get(jobId);
+        if (local != null) {
+            local.setCancelRequested(true);
+        }
+
+        // A job running on another replica sees the flag the next time it saves its progress
+        Query query = new Query(where("_id").is(jobId));
+        Update update = new Update().set("cancelRequested", true);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), ReplayJob.class));
+    }
+
+    void runReplay(ReplayJob job) {
+        try {
+            saveProgress(job);
+            if (job.isCancelRequested()) {
+                job.setStatus(ReplayJob.Status.CANCELLED);
+                return;
+            }
+
+            job.setStatus(ReplayJob.Status.RUNNING);
+            job.setStartedAt(Instant.now());
+            saveProgress(job);
+            releaseStaleClaims();
+            replay(job);
+
+            job.setStatus(job.isCancelRequested() ? ReplayJob.Status.CANCELLED : ReplayJob.Status.COMPLETED);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.setStatus(ReplayJob.Status.CANCELLED);
+        } catch (Exception ex) {
+            log.error("Parking lot replay {} failed", job.getId(), ex);
+            job.setError(ex.getMessage());
+            job.setStatus(ReplayJob.Status.FAILED);
+        } finally {
+            finish(job, job.getStatus());
+            localJobs.remove(job.getId());
+            log.info("Parking lot replay {} {}: {} replayed, {} failed",
+                job.getId(), job.getStatus(), job.getReplayed(), job.getFailed());
+        }
+    }
+
+    private void replay(ReplayJob job) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / job.getRatePerSecond();
+        long nextSendNanos = System.nanoTime();
+        long remaining = job.getLimit() != null ? job.getLimit() : Long.MAX_VALUE;
+        Map<String, Integer> sentPerQueue = new HashMap<>();
+        ParkedMessage last = null;
+
+        while (remaining > 0 && !job.isCancelRequested()) {
+            List<ParkedMessage> page = mongoTemplate.find(nextPage(job, last), ParkedMessage.class);
+            if (page.isEmpty()) {
+                return;
+            }
+
+            for (ParkedMessage candidate : page) {
+                last = candidate;
+                if (remaining <= 0 || job.isCancelRequested()) {
+                    break;
+                }
+                if (candidate.getParkedAt() != null && candidate.getParkedAt().isAfter(job.getCreatedAt())) {
+                    // Parked (or re-parked by a failed replay) after the job started; pages are
+                    // ordered by parkedAt, so the rest of the snapshot has been replayed
+                    return;
+                }
+                if (candidate.getOriginalQueue() == null) {
+                    job.setFailed(job.getFailed() + 1);
+                    remaining--;
+                    continue;
+                }
+
+                // Queue depth is sampled every few messages rather than per message
+                int sent = sentPerQueue.merge(candidate.getOriginalQueue(), 1, Integer::sum);
+                if ((sent - 1) % capacityCheckInterval == 0) {
+                    waitForCapacity(job, candidate.getOriginalQueue());
+                }
+                long sleepNanos = nextSendNanos - System.nanoTime();
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+                // Pace from whichever is later so a capacity pause is not followed by a burst
+                nextSendNanos = Math.max(nextSendNanos, System.nanoTime()) + intervalNanos;
+                if (job.isCancelRequested()) {
+                    break;
+                }
+
+                ParkedMessage claimed = claim(candidate, job);
+                if (claimed == null) {
+                    // Claimed by another replay, or re-parked since the page was read
+                    continue;
+                }
+                remaining--;
+                try {
+                    confirmedPublisher.sendToQueue(claimed.getOriginalQueue(), toMessage(claimed));
+                    complete(claimed, job, ParkedMessageStatus.REPLAYED);
+                    job.setReplayed(job.getReplayed() + 1);
+                } catch (Exception ex) {
+                    complete(claimed, job, ParkedMessageStatus.PARKED);
+                    job.setFailed(job.getFailed() + 1);
+                    log.warn("Failed to replay parked message {}: {}", claimed.getId(), ex.getMessage());
+                }
+            }
+
+            saveProgress(job);
+        }
+    }
+
+    private void waitForCapacity(ReplayJob job, String queue) throws InterruptedException {
+        while (!job.isCancelRequested()) {
+            QueueInformation info = amqpAdmin.getQueueInfo(queue);
+            if (info == null || info.getMessageCount() <= maxQueueDepth) {
+                return;
+            }
+            log.debug("Replay {} paused, {} has {} messages waiting", job.getId(), queue, info.getMessageCount());
+            TimeUnit.SECONDS.sleep(1);
+            saveProgress(job);
+        }
+    }
+
+    private ParkedMessage claim(ParkedMessage parked, ReplayJob job) {
+        Query query = new Query(where("_id").is(parked.getId()).and("status").is(ParkedMessageStatus.PARKED));
+        Update update = new Update()
+            .set("status", ParkedMessageStatus.REPLAYING)
+            .set("replayJobId", job.getId())
+            .set("replayClaimedAt", Instant.now());
+        return mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), ParkedMessage.class);
+    }
+
+    private void complete(ParkedMessage parked, ReplayJob job, ParkedMessageStatus status) {
+        // Guarded on the claim, so a message that already failed again and was re-parked stays parked
+        Query query = new Query(where("_id").is(parked.getId())
+            .and("status").is(ParkedMessageStatus.REPLAYING)
+            .and("replayJobId").is(job.getId()));
+        Update update = new Update()
+            .set("status", status)
+            .unset("replayJobId")
+            .unset("replayClaimedAt");
+        if (status == ParkedMessageStatus.REPLAYED) {
+            update.set("replayedAt", Instant.now()).inc("replayCount", 1);
+        }
+        mongoTemplate.updateFirst(query, update, ParkedMessage.class);
+    }
+
+    private void releaseStaleClaims() {
+        // Claims left behind by a replica that died mid-replay
+        Query query = new Query(where("status").is(ParkedMessageStatus.REPLAYING)
+            .and("replayClaimedAt").lt(Instant.now().minus(claimTimeout)));
+        Update update = new Update()
+            .set("status", ParkedMessageStatus.PARKED)
+            .unset("replayJobId")
+            .unset("replayClaimedAt");
+        long released = mongoTemplate.updateMulti(query, update, ParkedMessage.class).getModifiedCount();
+        if (released > 0) {
+            log.warn("Released {} stale parking lot replay claims", released);
+        }
+    }
+
+    private void saveProgress(ReplayJob job) {
+        Update update = new Update()
+            .set("status", job.getStatus())
+            .set("replayed", job.getReplayed())
+            .set("failed", job.getFailed())
+            .set("startedAt", job.getStartedAt());
+        ReplayJob stored = mongoTemplate.findAndModify(new Query(where("_id").is(job.getId())), update,
+            FindAndModifyOptions.options().returnNew(true), ReplayJob.class);
+        if (stored != null && stored.isCancelRequested()) {
+            job.setCancelRequested(true);
+        }
+    }
+
+    private void finish(ReplayJob job, ReplayJob.Status status) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now());
+        try {
+            Update update = new Update()
+                .set("status", status)
+                .set("replayed", job.getReplayed())
+                .set("failed", job.getFailed())
+                .set("error", job.getError())
+                .set("finishedAt", job.getFinishedAt());
+            mongoTemplate.updateFirst(new Query(where("_id").is(job.getId())), update, ReplayJob.class);
+        } catch (Exception ex) {
+            log.warn("Failed to record final state of parking lot replay {}: {}", job.getId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Pages through the job's snapshot: messages matching its filter that were parked before the
+     * job was created. A message that fails again is re-parked with a newer parkedAt, so without
+     * the upper bound the job would keep finding, and replaying, its own failures.
+     */
+    private Query nextPage(ReplayJob job, ParkedMessage last) {
+        Criteria criteria = new Criteria().andOperator(
+            toCriteria(job.getFilter()),
+            where("parkedAt").lte(job.getCreatedAt()));
+        if (last != null) {
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                where("parkedAt").gt(last.getParkedAt()),
+                where("parkedAt").is(last.getParkedAt()).and("_id").gt(last.getId())));
+        }
+        return new Query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "parkedAt", "_id"))
+            .limit(replayPageSize);
+    }
+
+    private static Instant parseInstant(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.toString());
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static Message toMessage(ParkedMessage parked) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(parked.getMessageId());
+        properties.setContentType(parked.getContentType());
+        if (parked.getHeaders() != null) {
+            parked.getHeaders().forEach(properties::setHeader);
+        }
+        return new Message(parked.getBody(), properties);
+    }
+
+    private static ParkedMessageFilter copy(ParkedMessageFilter filter) {
+        ParkedMessageFilter copy = new ParkedMessageFilter();
+        if (filter != null) {
+            copy.setIds(filter.getIds());
+            copy.setQueue(filter.getQueue());
+            copy.setExceptionType(filter.getExceptionType());
+            copy.setStatus(filter.getStatus());
+            copy.setFrom(filter.getFrom());
+            copy.setTo(filter.getTo());
+        }
+        return copy;
+    }
+
+    private static Criteria toCriteria(ParkedMessageFilter filter) {
+        Criteria criteria = new Criteria();
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            criteria.and("_id").in(filter.getIds());
+        }
+        if (filter.getQueue() != null) {
+            criteria.and("originalQueue").is(filter.getQueue());
+        }
+        if (filter.getExceptionType() != null) {
+            criteria.and("exceptionType").is(filter.getExceptionType());
+        }
+        if (filter.getStatus() != null) {
+            criteria.and("status").is(filter.getStatus());
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            Criteria parkedAt = criteria.and("parkedAt");
+            if (filter.getFrom() != null) {
+                parkedAt.gte(filter.getFrom());
+            }
+            if (filter.getTo() != null) {
+                parkedAt.lt(filter.getTo());
+            }
+        }
+        return criteria;
+    }
+
+    private void ensureIndexes() {
+        if (indexesEnsured) {
+            return;
+        }
+
+        IndexOperations indexOps = mongoTemplate.indexOps(ParkedMessage.class);
+        indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC)
+            .on("parkedAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index().on("originalQueue", Sort.Direction.ASC).on("parkedAt", Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index().on("exceptionType", Sort.Direction.ASC).on("parkedAt", Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC).on("replayClaimedAt", Sort.Direction.ASC));
+        // Finished replay jobs age out; queued and running ones have no finishedAt and never expire
+        mongoTemplate.indexOps(ReplayJob.class)
+            .ensureIndex(new Index().on("finishedAt", Sort.Direction.ASC).expire(jobRetention));
+        indexesEnsured = true;
+    }
+}
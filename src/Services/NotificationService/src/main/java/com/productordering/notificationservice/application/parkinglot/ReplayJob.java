@@ -0,0 +1,50 @@
+package com.productordering.notificationservice.application.parkinglot;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A parking-lot replay. Jobs are stored in MongoDB so any replica can report on or cancel
+ * a replay running on another one; finished jobs age out after the configured retention.
+ */
+@Data
+@Document(collection = "parked_message_replays")
+public class ReplayJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    @Id
+    private String id;
+    private ParkedMessageFilter filter;
+    private int ratePerSecond;
+    private Integer limit;
+    private volatile Status status;
+    private volatile long replayed;
+    private volatile long failed;
+    private volatile String error;
+    private Instant createdAt;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile boolean cancelRequested;
+
+    public static ReplayJob create(ParkedMessageFilter filter, int ratePerSecond, Integer limit) {
+        ReplayJob job = new ReplayJob();
+        job.id = UUID.randomUUID().toString();
+        job.filter = filter;
+        job.ratePerSecond = ratePerSecond;
+        job.limit = limit;
+        job.status = Status.QUEUED;
+        job.createdAt = Instant.now();
+        return job;
+    }
+}
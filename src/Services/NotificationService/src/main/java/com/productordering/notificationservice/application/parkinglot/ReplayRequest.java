@@ -0,0 +1,10 @@
+package com.productordering.notificationservice.application.parkinglot;
+
+import lombok.Data;
+
+@Data
+public class ReplayRequest {
+    private ParkedMessageFilter filter = new ParkedMessageFilter();
+    private Integer ratePerSecond;
+    private Integer limit;
+}
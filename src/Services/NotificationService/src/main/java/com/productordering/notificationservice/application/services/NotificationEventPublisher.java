@@ -0,0 +1,7 @@
+package com.productordering.notificationservice.application.services;
+
+import com.productordering.notificationservice.domain.entities.Notification;
+
+public interface NotificationEventPublisher {
+    void publishOutcome(Notification notification);
+}
@@ -0,0 +1,86 @@
+package com.productordering.notificationservice.application.services;
+
+import com.productordering.notificationservice.application.messaging.events.OrderCreatedEvent;
+import com.productordering.notificationservice.application.messaging.events.PaymentFailedEvent;
+import com.productordering.notificationservice.domain.entities.ScheduledNotification;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Schedules follow-up notifications and cancels them when a later event
+ * makes them irrelevant (e.g. the payment eventually succeeds).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationReminderService {
+    
+    private final NotificationScheduler notificationScheduler;
+    
+    @Value("${notifications.reminders.payment-reminder-delay:24h}")
+    private Duration paymentReminderDelay;
+    
+    @Value("${notifications.reminders.order-pending-delay:2h}")
+    private Duration orderPendingDelay;
+    
+    public void scheduleOrderPendingReminder(OrderCreatedEvent event) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("totalAmount", String.valueOf(event.getTotalAmount()));
+        
+        notificationScheduler.schedule(ScheduledNotification.create(
+            orderPendingKey(event.getOrderId()),
+            NotificationType.ORDER_PENDING_REMINDER,
+            event.getCustomerId(),
+            event.getOrderId(),
+            attributes,
+            occurredAt(event.getCreatedAt()).plus(orderPendingDelay)
+        ));
+    }
+    
+    public void schedulePaymentReminder(PaymentFailedEvent event) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("paymentId", String.valueOf(event.getPaymentId()));
+        attributes.put("reason", event.getReason());
+        
+        // The payment reminder supersedes the generic pending-order nudge
+        notificationScheduler.cancel(orderPendingKey(event.getOrderId()));
+        notificationScheduler.schedule(ScheduledNotification.create(
+            paymentReminderKey(event.getOrderId()),
+            NotificationType.PAYMENT_REMINDER,
+            null, // TODO: Get userId from order
+            event.getOrderId(),
+            attributes,
+            occurredAt(event.getFailedAt()).plus(paymentReminderDelay)
+        ));
+    }
+    
+    public void cancelOrderReminders(UUID orderId) {
+        notificationScheduler.cancel(orderPendingKey(orderId));
+        notificationScheduler.cancel(paymentReminderKey(orderId));
+    }
+    
+    /**
+     * Reminders are due relative to when the event happened rather than when it was consumed,
+     * so a redelivered or replayed event lands on the same dueAt instead of pushing it later.
+     */
+    private static Instant occurredAt(Instant eventTime) {
+        return eventTime != null ? eventTime : Instant.now();
+    }
+    
+    private static String orderPendingKey(UUID orderId) {
+        return "order-pending-reminder:" + orderId;
+    }
+    
+    private static String paymentReminderKey(UUID orderId) {
+        return "payment-reminder:" + orderId;
+    }
+}
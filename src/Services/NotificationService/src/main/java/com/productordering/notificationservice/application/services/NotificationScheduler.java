@@ -0,0 +1,8 @@
+package com.productordering.notificationservice.application.services;
+
+import com.productordering.notificationservice.domain.entities.ScheduledNotification;
+
+public interface NotificationScheduler {
+    boolean schedule(ScheduledNotification notification);
+    boolean cancel(String key);
+}
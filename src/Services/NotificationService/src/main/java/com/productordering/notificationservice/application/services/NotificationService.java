@@ -1,14 +1,15 @@
 package com.productordering.notificationservice.application.services;
 
+import com.productordering.notificationservice.application.analytics.NotificationRollupRecorder;
 import com.productordering.notificationservice.application.messaging.events.OrderCreatedEvent;
 import com.productordering.notificationservice.application.messaging.events.PaymentFailedEvent;
 import com.productordering.notificationservice.application.messaging.events.PaymentProcessedEvent;
 import com.productordering.notificationservice.domain.entities.Notification;
+import com.productordering.notificationservice.domain.entities.ScheduledNotification;
 import com.productordering.notificationservice.domain.enums.NotificationType;
 import com.productordering.notificationservice.domain.repositories.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -21,8 +22,9 @@ public class NotificationService {
     private final EmailService emailService;
     private final NotificationRepository notificationRepository;
     private final TemplateEngine templateEngine;
+    private final NotificationRollupRecorder rollupRecorder;
+    private final NotificationEventPublisher eventPublisher;
     
-    @Async
     public void sendOrderConfirmationEmail(OrderCreatedEvent event) {
         log.info("Sending order confirmation email for Order: {}", event.getOrderId());
         
@@ -48,33 +50,17 @@ public class NotificationService {
                 htmlContent
             );
             
-            try {
-                notificationRepository.save(notification);
-            } catch (Exception dbEx) {
-                log.warn("Failed to save notification record to database: {}", dbEx.getMessage());
-                // Continue anyway - email is more important than record
-            }
-            
-            // Send email
-            emailService.sendEmail(recipient, subject, htmlContent);
-            
-            // Mark as sent
-            try {
-                notification.markAsSent();
-                notificationRepository.save(notification);
-            } catch (Exception dbEx) {
-                log.warn("Failed to update notification status: {}", dbEx.getMessage());
-            }
+            deliver(notification);
             
             log.info("Successfully sent order confirmation email for Order: {}", event.getOrderId());
             
         } catch (Exception ex) {
             log.error("Failed to send order confirmation email for Order: {}", 
                 event.getOrderId(), ex);
+            throw ex;
         }
     }
     
-    @Async
     public void sendPaymentSuccessEmail(PaymentProcessedEvent event) {
         log.info("Sending payment success email for Order: {}", event.getOrderId());
         
@@ -99,30 +85,17 @@ public class NotificationService {
                 htmlContent
             );
             
-            try {
-                notificationRepository.save(notification);
-            } catch (Exception dbEx) {
-                log.warn("Failed to save notification record to database: {}", dbEx.getMessage());
-            }
-            
-            emailService.sendEmail(recipient, subject, htmlContent);
-            
-            try {
-                notification.markAsSent();
-                notificationRepository.save(notification);
-            } catch (Exception dbEx) {
-                log.warn("Failed to update notification status: {}", dbEx.getMessage());
-            }
+            deliver(notification);
             
             log.info("Successfully sent payment success email for Order: {}", event.getOrderId());
             
         } catch (Exception ex) {
             log.error("Failed to send payment success email for Order: {}", 
                 event.getOrderId(), ex);
+            throw ex;
         }
     }
     
-    @Async
     public void sendPaymentFailedEmail(PaymentFailedEvent event) {
         log.info("Sending payment failed email for Order: {}", event.getOrderId());
         
@@ -146,26 +119,95 @@ public class NotificationService {
                 htmlContent
             );
             
-            try {
-                notificationRepository.save(notification);
-            } catch (Exception dbEx) {
-                log.warn("Failed to save notification record to database: {}", dbEx.getMessage());
-            }
-            
-            emailService.sendEmail(recipient, subject, htmlContent);
-            
-            try {
-                notification.markAsSent();
-                notificationRepository.save(notification);
-            } catch (Exception dbEx) {
-                log.warn("Failed to update notification status: {}", dbEx.getMessage());
-            }
+            deliver(notification);
             
             log.info("Successfully sent payment failed email for Order: {}", event.getOrderId());
             
         } catch (Exception ex) {
             log.error("Failed to send payment failed email for Order: {}", 
                 event.getOrderId(), ex);
+            throw ex;
+        }
+    }
+    
+    /**
+     * Sends a fired reminder on the caller's thread and rethrows on failure, so the
+     * scheduler only marks the timer as fired once the email has actually gone out.
+     */
+    public void sendScheduledNotification(ScheduledNotification scheduled) {
+        log.info("Sending scheduled {} email for Order: {}", scheduled.getType(), scheduled.getOrderId());
+        
+        try {
+            Context context = new Context();
+            context.setVariable("orderId", scheduled.getOrderId());
+            scheduled.getAttributes().forEach(context::setVariable);
+            
+            String template;
+            String subject;
+            switch (scheduled.getType()) {
+                case PAYMENT_REMINDER -> {
+                    template = "payment-reminder";
+                    subject = "Reminder: Complete Your Payment - Order #" + scheduled.getOrderId();
+                }
+                case ORDER_PENDING_REMINDER -> {
+                    template = "order-pending-reminder";
+                    subject = "Your Order Is Still Pending - Order #" + scheduled.getOrderId();
+                }
+                default -> throw new IllegalArgumentException(
+                    "Unsupported scheduled notification type: " + scheduled.getType());
+            }
+            
+            String htmlContent = templateEngine.process(template, context);
+            String recipient = "customer@example.com"; // TODO: Get from user service
+            
+            Notification notification = Notification.create(
+                scheduled.getUserId(),
+                scheduled.getOrderId(),
+                scheduled.getType(),
+                recipient,
+                subject,
+                htmlContent
+            );
+            
+            deliver(notification);
+            
+            log.info("Successfully sent scheduled {} email for Order: {}", 
+                scheduled.getType(), scheduled.getOrderId());
+            
+        } catch (Exception ex) {
+            log.error("Failed to send scheduled {} email for Order: {}", 
+                scheduled.getType(), scheduled.getOrderId(), ex);
+            throw ex;
+        }
+    }
+    
+    private void deliver(Notification notification) {
+        try {
+            notificationRepository.save(notification);
+        } catch (Exception dbEx) {
+            log.warn("Failed to save notification record to database: {}", dbEx.getMessage());
+            // Continue anyway - email is more important than record
+        }
+        
+        try {
+            emailService.sendEmail(notification.getRecipient(), notification.getSubject(), notification.getBody());
+        } catch (RuntimeException ex) {
+            notification.markAsFailed(ex.getMessage());
+            updateStatus(notification);
+            throw ex;
+        }
+        
+        notification.markAsSent();
+        updateStatus(notification);
+    }
+    
+    private void updateStatus(Notification notification) {
+        try {
+            notificationRepository.save(notification);
+        } catch (Exception dbEx) {
+            log.warn("Failed to update notification status: {}", dbEx.getMessage());
         }
+        rollupRecorder.record(notification);
+        eventPublisher.publishOutcome(notification);
     }
 }
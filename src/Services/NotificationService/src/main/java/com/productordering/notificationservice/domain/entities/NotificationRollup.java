@@ -0,0 +1,35 @@
+package com.productordering.notificationservice.domain.entities;
+
+import com.productordering.notificationservice.domain.enums.NotificationStatus;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-aggregated counts and delivery latency for one notification type and status
+ * within a fixed time bucket. Documents are only ever updated with $inc/$max so
+ * concurrent writers can fold into the same bucket.
+ */
+@Data
+@Document(collection = "notification_rollups")
+public class NotificationRollup {
+    @Id
+    private String id;
+    private NotificationType type;
+    private NotificationStatus status;
+    private Instant bucketStart;
+    private long count;
+    private long latencyCount;
+    private long latencySumMillis;
+    private long latencyMaxMillis;
+    private Map<String, Long> latencyBuckets = new HashMap<>();
+    
+    public static String idFor(NotificationType type, NotificationStatus status, Instant bucketStart) {
+        return type + ":" + status + ":" + bucketStart.toEpochMilli();
+    }
+}
@@ -0,0 +1,74 @@
+package com.productordering.notificationservice.domain.entities;
+
+import com.productordering.notificationservice.domain.enums.ParkedMessageStatus;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A message that exhausted its retries, copied off the parking-lot queue so it can be
+ * inspected, filtered and replayed to its original queue. The body is kept as raw bytes
+ * and headers keep their AMQP types, so a replay sends exactly what originally failed.
+ * The id is derived from the original queue and message id, so the same message is
+ * only ever stored once.
+ */
+@Data
+@Document(collection = "parked_messages")
+public class ParkedMessage {
+    @Id
+    private String id;
+    private String messageId;
+    private String originalQueue;
+    private String contentType;
+    private Map<String, Object> headers;
+    private byte[] body;
+    private String exceptionType;
+    private String exceptionMessage;
+    private int attempts;
+    private ParkedMessageStatus status;
+    private Instant failedAt;
+    private Instant parkedAt;
+    private Instant replayedAt;
+    private int replayCount;
+    private String replayJobId;
+    private Instant replayClaimedAt;
+    
+    public static ParkedMessage create(
+            String messageId,
+            String originalQueue,
+            String contentType,
+            Map<String, Object> headers,
+            byte[] body,
+            String exceptionType,
+            String exceptionMessage,
+            int attempts,
+            Instant failedAt) {
+        
+        ParkedMessage parked = new ParkedMessage();
+        parked.id = idFor(originalQueue, messageId);
+        parked.messageId = messageId;
+        parked.originalQueue = originalQueue;
+        parked.contentType = contentType;
+        parked.headers = headers != null ? new HashMap<>(headers) : new HashMap<>();
+        parked.body = body;
+        parked.exceptionType = exceptionType;
+        parked.exceptionMessage = exceptionMessage;
+        parked.attempts = attempts;
+        parked.status = ParkedMessageStatus.PARKED;
+        parked.failedAt = failedAt;
+        parked.parkedAt = Instant.now();
+        return parked;
+    }
+    
+    public static String idFor(String originalQueue, String messageId) {
+        // Without a message id there is nothing to de-duplicate on
+        return messageId != null
+            ? originalQueue + ":" + messageId
+            : UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.productordering.notificationservice.domain.entities;
+
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import com.productordering.notificationservice.domain.enums.ScheduledNotificationStatus;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A notification that should be sent at a later point in time.
+ * The id doubles as the cancellation key (e.g. "payment-reminder:{orderId}"),
+ * so scheduling the same key again replaces the pending timer. Fired and
+ * cancelled keys are final and are not brought back by a later schedule.
+ */
+@Data
+@Document(collection = "scheduled_notifications")
+public class ScheduledNotification {
+    @Id
+    private String id;
+    private NotificationType type;
+    private ScheduledNotificationStatus status;
+    private UUID userId;
+    private UUID orderId;
+    private Map<String, String> attributes;
+    private Instant dueAt;
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+    private int attempts;
+    private Instant createdAt;
+    private Instant completedAt;
+    
+    public static ScheduledNotification create(
+            String key,
+            NotificationType type,
+            UUID userId,
+            UUID orderId,
+            Map<String, String> attributes,
+            Instant dueAt) {
+        
+        ScheduledNotification scheduled = new ScheduledNotification();
+        scheduled.id = key;
+        scheduled.type = type;
+        scheduled.status = ScheduledNotificationStatus.PENDING;
+        scheduled.userId = userId;
+        scheduled.orderId = orderId;
+        scheduled.attributes = attributes != null ? new HashMap<>(attributes) : new HashMap<>();
+        // MongoDB stores millisecond precision; keep the in-memory copy comparable
+        scheduled.dueAt = dueAt.truncatedTo(ChronoUnit.MILLIS);
+        scheduled.createdAt = Instant.now();
+        return scheduled;
+    }
+}
@@ -5,5 +5,7 @@ public enum NotificationType {
     PAYMENT_SUCCESS,
     PAYMENT_FAILED,
     SHIPMENT_TRACKING,
-    ORDER_CANCELLED
+    ORDER_CANCELLED,
+    PAYMENT_REMINDER,
+    ORDER_PENDING_REMINDER
 }
@@ -0,0 +1,7 @@
+package com.productordering.notificationservice.domain.enums;
+
+public enum ParkedMessageStatus {
+    PARKED,
+    REPLAYING,
+    REPLAYED
+}
@@ -0,0 +1,9 @@
+package com.productordering.notificationservice.domain.enums;
+
+public enum ScheduledNotificationStatus {
+    PENDING,
+    CLAIMED,
+    FIRED,
+    FAILED,
+    CANCELLED
+}
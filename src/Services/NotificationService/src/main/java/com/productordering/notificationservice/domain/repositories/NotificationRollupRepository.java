@@ -0,0 +1,16 @@
+package com.productordering.notificationservice.domain.repositories;
+
+import com.productordering.notificationservice.domain.entities.NotificationRollup;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationRollupRepository extends MongoRepository<NotificationRollup, String> {
+    List<NotificationRollup> findByBucketStartGreaterThanEqualAndBucketStartLessThan(Instant from, Instant to);
+    List<NotificationRollup> findByTypeAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+        NotificationType type, Instant from, Instant to);
+}
@@ -0,0 +1,9 @@
+package com.productordering.notificationservice.domain.repositories;
+
+import com.productordering.notificationservice.domain.entities.ParkedMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ParkedMessageRepository extends MongoRepository<ParkedMessage, String> {
+}
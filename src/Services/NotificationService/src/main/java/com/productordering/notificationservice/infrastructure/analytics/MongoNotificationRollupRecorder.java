@@ -0,0 +1,187 @@
+package com.productordering.notificationservice.infrastructure.analytics;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.productordering.notificationservice.application.analytics.LatencyHistogram;
+import com.productordering.notificationservice.application.analytics.NotificationRollupRecorder;
+import com.productordering.notificationservice.domain.entities.Notification;
+import com.productordering.notificationservice.domain.entities.NotificationRollup;
+import com.productordering.notificationservice.domain.enums.NotificationStatus;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Folds notification outcomes into in-memory rollup deltas and periodically flushes
+ * them to the notification_rollups collection as one unordered bulk of $inc upserts.
+ * Deltas whose upsert failed are merged back and retried on the next flush; deltas that
+ * were applied by a partially failed bulk are not, so they are never counted twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoNotificationRollupRecorder implements NotificationRollupRecorder {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Value("${notifications.analytics.bucket-size:1m}")
+    private Duration bucketSize;
+    
+    private final Map<String, PendingRollup> pending = new ConcurrentHashMap<>();
+    private volatile boolean indexesEnsured;
+    
+    @Override
+    public void record(Notification notification) {
+        if (notification.getType() == null || notification.getStatus() == null) {
+            return;
+        }
+        
+        Instant completedAt = notification.getSentAt() != null ? notification.getSentAt() : Instant.now();
+        long bucketMillis = bucketSize.toMillis();
+        Instant bucketStart = Instant.ofEpochMilli(completedAt.toEpochMilli() / bucketMillis * bucketMillis);
+        Long latencyMillis = notification.getSentAt() != null && notification.getCreatedAt() != null
+            ? Math.max(0, Duration.between(notification.getCreatedAt(), notification.getSentAt()).toMillis())
+            : null;
+        
+        String id = NotificationRollup.idFor(notification.getType(), notification.getStatus(), bucketStart);
+        pending.compute(id, (key, rollup) -> {
+            if (rollup == null) {
+                rollup = new PendingRollup(key, notification.getType(), notification.getStatus(), bucketStart);
+            }
+            rollup.add(latencyMillis);
+            return rollup;
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${notifications.analytics.flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        List<PendingRollup> batch = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            PendingRollup rollup = pending.remove(key);
+            if (rollup != null) {
+                batch.add(rollup);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try {
+            ensureIndexes();
+            
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationRollup.class);
+            for (PendingRollup rollup : batch) {
+                bulk.upsert(new Query(where("_id").is(rollup.id)), rollup.toUpdate());
+            }
+            bulk.execute();
+            log.debug("Flushed {} notification rollup updates", batch.size());
+        } catch (BulkOperationException ex) {
+            // An unordered bulk applies every upsert that did not fail, so only the failed ones are retried
+            List<BulkWriteError> errors = ex.getErrors();
+            log.warn("Failed to flush {} of {} notification rollup updates, will retry: {}",
+                errors.size(), batch.size(), ex.getMessage());
+            errors.forEach(error -> retry(batch.get(error.getIndex())));
+        } catch (Exception ex) {
+            log.warn("Failed to flush notification rollups, will retry: {}", ex.getMessage());
+            batch.forEach(this::retry);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    private void retry(PendingRollup rollup) {
+        pending.merge(rollup.id, rollup, PendingRollup::merge);
+    }
+    
+    private void ensureIndexes() {
+        if (indexesEnsured) {
+            return;
+        }
+        
+        IndexOperations indexOps = mongoTemplate.indexOps(NotificationRollup.class);
+        indexOps.ensureIndex(new Index().on("bucketStart", Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index().on("type", Sort.Direction.ASC).on("bucketStart", Sort.Direction.ASC));
+        indexesEnsured = true;
+    }
+    
+    private static class PendingRollup {
+        private final String id;
+        private final NotificationType type;
+        private final NotificationStatus status;
+        private final Instant bucketStart;
+        private long count;
+        private long latencyCount;
+        private long latencySumMillis;
+        private long latencyMaxMillis;
+        private final Map<Integer, Long> latencyBuckets = new HashMap<>();
+        
+        PendingRollup(String id, NotificationType type, NotificationStatus status, Instant bucketStart) {
+            this.id = id;
+            this.type = type;
+            this.status = status;
+            this.bucketStart = bucketStart;
+        }
+        
+        void add(Long latencyMillis) {
+            count++;
+            if (latencyMillis != null) {
+                latencyCount++;
+                latencySumMillis += latencyMillis;
+                latencyMaxMillis = Math.max(latencyMaxMillis, latencyMillis);
+                latencyBuckets.merge(LatencyHistogram.bucketFor(latencyMillis), 1L, Long::sum);
+            }
+        }
+        
+        static PendingRollup merge(PendingRollup target, PendingRollup other) {
+            target.count += other.count;
+            target.latencyCount += other.latencyCount;
+            target.latencySumMillis += other.latencySumMillis;
+            target.latencyMaxMillis = Math.max(target.latencyMaxMillis, other.latencyMaxMillis);
+            other.latencyBuckets.forEach((bucket, count) -> target.latencyBuckets.merge(bucket, count, Long::sum));
+            return target;
+        }
+        
+        Update toUpdate() {
+            Update update = new Update()
+                .setOnInsert("type", type)
+                .setOnInsert("status", status)
+                .setOnInsert("bucketStart", bucketStart)
+                .inc("count", count);
+            if (latencyCount > 0) {
+                update.inc("latencyCount", latencyCount)
+                    .inc("latencySumMillis", latencySumMillis)
+                    .max("latencyMaxMillis", latencyMaxMillis);
+                latencyBuckets.forEach((bucket, bucketCount) -> update.inc("latencyBuckets." + bucket, bucketCount));
+            }
+            return update;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends a raw message to a queue through the default exchange and waits for the broker
+ * confirm. Used wherever a message is moved between queues and the original is only
+ * acknowledged once the copy is safely stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfirmedPublisher {
+    
+    private final RabbitTemplate rabbitTemplate;
+    
+    @Value("${rabbitmq.publisher.confirm-timeout:30s}")
+    private Duration confirmTimeout;
+    
+    public void sendToQueue(String queue, Message message) {
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        rabbitTemplate.send("", queue, message, correlation);
+        
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = correlation.getFuture().get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted waiting for broker confirm for queue " + queue, ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new AmqpException("No broker confirm for queue " + queue, ex);
+        }
+        
+        if (!confirm.isAck()) {
+            throw new AmqpException("Broker nacked message for queue " + queue + ": " + confirm.getReason());
+        }
+    }
+}
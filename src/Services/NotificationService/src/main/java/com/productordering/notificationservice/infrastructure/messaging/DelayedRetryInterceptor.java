@@ -0,0 +1,127 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
+import org.springframework.amqp.rabbit.listener.FatalExceptionStrategy;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Listener container advice that takes failed messages off the consumer thread.
+ * Instead of blocking for a backoff, a failed message is copied to a per-attempt delay
+ * queue whose TTL dead-letters it back to the source queue, and the original is acked.
+ * Once attempts are exhausted, or the failure can never succeed (e.g. a
+ * MessageConversionException), the message is parked on the parking-lot queue instead.
+ * Messages that fail on the parking-lot queue itself are held on its own delay queue and
+ * come back until they are stored; they are never dropped.
+ * If the copy cannot be confirmed by the broker the failure is rethrown and the message
+ * is requeued, so nothing is dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DelayedRetryInterceptor implements MethodInterceptor {
+    
+    public static final String RETRY_COUNT_HEADER = "x-retry-count";
+    public static final String ORIGINAL_QUEUE_HEADER = "x-original-queue";
+    public static final String EXCEPTION_TYPE_HEADER = "x-exception-type";
+    public static final String EXCEPTION_MESSAGE_HEADER = "x-exception-message";
+    public static final String FAILED_AT_HEADER = "x-failed-at";
+    
+    private final ConfirmedPublisher confirmedPublisher;
+    private final FatalExceptionStrategy fatalExceptionStrategy =
+        new ConditionalRejectingErrorHandler.DefaultExceptionStrategy();
+    
+    @Value("${rabbitmq.queues.parking-lot}")
+    private String parkingLotQueue;
+    
+    @Value("${rabbitmq.retry.max-attempts:3}")
+    private int maxAttempts;
+    
+    public static String retryQueueName(String queue, int attempt) {
+        return queue + ".retry-" + attempt;
+    }
+    
+    public static long retryDelayMillis(int attempt, long initialInterval, double multiplier, long maxInterval) {
+        return Math.min(maxInterval, (long) (initialInterval * Math.pow(multiplier, attempt - 1)));
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // ContainerDelegate.invokeListener(Channel, Object data)
+        Object data = invocation.getArguments().length > 1 ? invocation.getArguments()[1] : null;
+        if (!(data instanceof Message message) || message.getMessageProperties().getConsumerQueue() == null) {
+            return invocation.proceed();
+        }
+        
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            try {
+                if (parkingLotQueue.equals(message.getMessageProperties().getConsumerQueue())) {
+                    holdParked(message, ex);
+                } else {
+                    route(message, ex);
+                }
+            } catch (RuntimeException publishEx) {
+                log.error("Failed to move failed message off {}, requeueing", 
+                    message.getMessageProperties().getConsumerQueue(), publishEx);
+                publishEx.addSuppressed(ex);
+                throw publishEx;
+            }
+            return null;
+        }
+    }
+    
+    private void route(Message message, Throwable ex) {
+        String queue = message.getMessageProperties().getConsumerQueue();
+        Object previousRetries = message.getMessageProperties().getHeader(RETRY_COUNT_HEADER);
+        int attempt = (previousRetries instanceof Number retries ? retries.intValue() : 0) + 1;
+        Throwable cause = listenerCause(ex);
+        
+        if (attempt < maxAttempts && !fatalExceptionStrategy.isFatal(ex)) {
+            Message retry = MessageBuilder.fromMessage(message)
+                .setHeader(RETRY_COUNT_HEADER, attempt)
+                .build();
+            confirmedPublisher.sendToQueue(retryQueueName(queue, attempt), retry);
+            log.warn("Message {} from {} failed (attempt {}/{}), scheduled for retry: {}",
+                message.getMessageProperties().getMessageId(), queue, attempt, maxAttempts, cause.getMessage());
+            return;
+        }
+        
+        Message parked = MessageBuilder.fromMessage(message)
+            .setHeader(RETRY_COUNT_HEADER, attempt)
+            .setHeader(ORIGINAL_QUEUE_HEADER, queue)
+            .setHeader(EXCEPTION_TYPE_HEADER, cause.getClass().getName())
+            .setHeader(EXCEPTION_MESSAGE_HEADER, String.valueOf(cause.getMessage()))
+            .setHeader(FAILED_AT_HEADER, Instant.now().toString())
+            .build();
+        confirmedPublisher.sendToQueue(parkingLotQueue, parked);
+        log.error("Message {} from {} failed after {} attempt(s), moved to parking lot: {}",
+            message.getMessageProperties().getMessageId(), queue, attempt, cause.getMessage());
+    }
+    
+    private void holdParked(Message message, Throwable ex) {
+        // Storing a parked message usually fails because MongoDB is down; back off rather than
+        // requeueing straight into a redelivery loop
+        confirmedPublisher.sendToQueue(retryQueueName(parkingLotQueue, 1), message);
+        log.warn("Failed to store parked message {}, holding it for retry: {}",
+            message.getMessageProperties().getMessageId(), listenerCause(ex).getMessage());
+    }
+    
+    private static Throwable listenerCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause instanceof ListenerExecutionFailedException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
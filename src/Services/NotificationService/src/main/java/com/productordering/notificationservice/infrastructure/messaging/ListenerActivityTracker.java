@@ -0,0 +1,66 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener container advice that records how long consumer threads spend in the
+ * listener per queue. The concurrency controller diffs these totals between samples
+ * to derive consumer utilization and throughput.
+ */
+@Component
+public class ListenerActivityTracker implements MethodInterceptor {
+    
+    private final Map<String, QueueActivity> activity = new ConcurrentHashMap<>();
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            String queue = consumerQueue(invocation.getArguments());
+            if (queue != null) {
+                activity(queue).record(System.nanoTime() - start);
+            }
+        }
+    }
+    
+    public QueueActivity activity(String queue) {
+        return activity.computeIfAbsent(queue, q -> new QueueActivity());
+    }
+    
+    private static String consumerQueue(Object[] arguments) {
+        // ContainerDelegate.invokeListener(Channel, Object data): data is a Message or a batch of them
+        Object data = arguments.length > 1 ? arguments[1] : null;
+        if (data instanceof List<?> batch && !batch.isEmpty()) {
+            data = batch.get(0);
+        }
+        return data instanceof Message message ? message.getMessageProperties().getConsumerQueue() : null;
+    }
+    
+    public static class QueueActivity {
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder processed = new LongAdder();
+        
+        void record(long nanos) {
+            busyNanos.add(nanos);
+            processed.increment();
+        }
+        
+        public long busyNanos() {
+            return busyNanos.sum();
+        }
+        
+        public long processed() {
+            return processed.sum();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import java.time.Duration;
+
+/**
+ * Published whenever the concurrency controller rescales a listener container.
+ */
+public record ListenerConcurrencyChangedEvent(
+        String queue,
+        String direction,
+        int previousConsumers,
+        int consumers,
+        long queueDepth,
+        double utilization,
+        Duration estimatedLatency) {
+}
@@ -0,0 +1,219 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adjusts each listener container's consumer count from sampled queue depth, consumer
+ * utilization and estimated end-to-end latency. A direction has to hold for several
+ * consecutive samples, and changes are followed by a cooldown, so the controller does not
+ * flap around a threshold.
+ * <p>
+ * End-to-end latency is estimated with Little's law (backlog / drain rate) plus the mean
+ * listener time, since the .NET publishers do not stamp a send time on the AMQP message.
+ * Listeners send their email on the consumer thread, so both measure the stage that
+ * actually backs up. Prefetch stays fixed: the container only applies it to consumers
+ * started afterwards, so rescaling it at runtime would not take effect reliably.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListenerConcurrencyController {
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final ListenerActivityTracker activityTracker;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${rabbitmq.autoscaling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rabbitmq.autoscaling.min-consumers:1}")
+    private int minConsumers;
+
+    @Value("${rabbitmq.autoscaling.max-consumers:10}")
+    private int maxConsumers;
+
+    @Value("${rabbitmq.autoscaling.scale-up-step:2}")
+    private int scaleUpStep;
+
+    @Value("${rabbitmq.autoscaling.backlog-per-consumer:100}")
+    private long backlogPerConsumer;
+
+    @Value("${rabbitmq.autoscaling.target-latency:10s}")
+    private Duration targetLatency;
+
+    @Value("${rabbitmq.autoscaling.scale-down-utilization:0.3}")
+    private double scaleDownUtilization;
+
+    @Value("${rabbitmq.autoscaling.scale-up-samples:2}")
+    private int scaleUpSamples;
+
+    @Value("${rabbitmq.autoscaling.scale-down-samples:6}")
+    private int scaleDownSamples;
+
+    @Value("${rabbitmq.autoscaling.cooldown:30s}")
+    private Duration cooldown;
+
+    private final Map<String, QueueState> states = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${rabbitmq.autoscaling.sample-interval:5000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+
+        for (MessageListenerContainer listenerContainer : listenerRegistry.getListenerContainers()) {
+            if (!(listenerContainer instanceof SimpleMessageListenerContainer container)
+                    || !container.isRunning() || container.getQueueNames().length == 0) {
+                continue;
+            }
+
+            String queue = container.getQueueNames()[0];
+            try {
+                sample(queue, container);
+            } catch (Exception ex) {
+                log.debug("Failed to sample listener queue {}: {}", queue, ex.getMessage());
+            }
+        }
+    }
+
+    private void sample(String queue, SimpleMessageListenerContainer container) {
+        QueueInformation info = amqpAdmin.getQueueInfo(queue);
+        if (info == null) {
+            return;
+        }
+
+        QueueState state = states.computeIfAbsent(queue, this::register);
+        ListenerConcurrencyChangedEvent event = evaluate(
+            queue, state, info.getMessageCount(), activityTracker.activity(queue), System.nanoTime());
+        if (event == null) {
+            return;
+        }
+
+        container.setConcurrentConsumers(event.consumers());
+        meterRegistry.counter("notification.listener.scaling.decisions",
+            Tags.of("queue", queue, "direction", event.direction())).increment();
+        eventPublisher.publishEvent(event);
+        log.info("Scaled listener for {} {}: consumers {} -> {} (depth: {}, utilization: {}, latency: {})",
+            queue, event.direction(), event.previousConsumers(), event.consumers(),
+            event.queueDepth(), String.format("%.2f", event.utilization()), event.estimatedLatency());
+    }
+
+    /**
+     * Folds one sample into the queue's state and decides whether to rescale. Returns the
+     * change to apply, with the state already updated to it, or null to leave the container as is.
+     */
+    ListenerConcurrencyChangedEvent evaluate(String queue, QueueState state, long depth,
+                                             ListenerActivityTracker.QueueActivity activity, long now) {
+        long busyNanos = activity.busyNanos();
+        long processed = activity.processed();
+
+        state.depth = depth;
+        if (state.lastSampleNanos == 0) {
+            // Treat startup as a change so the first decision waits for a full cooldown
+            state.reset(now, busyNanos, processed);
+            state.lastChangeNanos = now;
+            return null;
+        }
+
+        long elapsedNanos = now - state.lastSampleNanos;
+        long busyDelta = busyNanos - state.lastBusyNanos;
+        long processedDelta = processed - state.lastProcessed;
+        state.reset(now, busyNanos, processed);
+
+        state.utilization = Math.min(1.0, (double) busyDelta / ((double) elapsedNanos * state.consumers));
+        double drainRatePerSecond = processedDelta / (elapsedNanos / 1e9);
+        long meanListenerNanos = processedDelta > 0 ? busyDelta / processedDelta : 0;
+        boolean stalled = drainRatePerSecond == 0 && state.depth > 0;
+        state.estimatedLatency = stalled
+            ? null
+            : Duration.ofNanos((long) (state.depth / Math.max(drainRatePerSecond, 1e-9) * 1e9) + meanListenerNanos);
+
+        boolean backlogged = state.depth > backlogPerConsumer * state.consumers;
+        boolean slow = stalled || state.estimatedLatency.compareTo(targetLatency) > 0;
+        boolean idle = state.depth <= state.consumers && state.utilization < scaleDownUtilization;
+
+        state.upStreak = (backlogged || slow) && state.consumers < maxConsumers ? state.upStreak + 1 : 0;
+        state.downStreak = idle && state.consumers > minConsumers ? state.downStreak + 1 : 0;
+
+        if (now - state.lastChangeNanos < cooldown.toNanos()) {
+            return null;
+        }
+
+        String direction;
+        int consumers;
+        if (state.upStreak >= scaleUpSamples) {
+            direction = "UP";
+            consumers = Math.min(maxConsumers, state.consumers + scaleUpStep);
+        } else if (state.downStreak >= scaleDownSamples) {
+            direction = "DOWN";
+            consumers = Math.max(minConsumers, state.consumers - 1);
+        } else {
+            return null;
+        }
+
+        ListenerConcurrencyChangedEvent event = new ListenerConcurrencyChangedEvent(
+            queue, direction, state.consumers, consumers, state.depth, state.utilization, state.estimatedLatency);
+        state.consumers = consumers;
+        state.upStreak = 0;
+        state.downStreak = 0;
+        state.lastChangeNanos = now;
+        return event;
+    }
+
+    private QueueState register(String queue) {
+        // Containers start at the factory's minimum settings
+        QueueState state = new QueueState(minConsumers);
+        Tags tags = Tags.of("queue", queue);
+        meterRegistry.gauge("notification.listener.consumers", tags, state, s -> s.consumers);
+        meterRegistry.gauge("notification.listener.queue.depth", tags, state, s -> s.depth);
+        meterRegistry.gauge("notification.listener.utilization", tags, state, s -> s.utilization);
+        meterRegistry.gauge("notification.listener.estimated.latency.seconds", tags, state,
+            s -> s.estimatedLatency != null ? s.estimatedLatency.toMillis() / 1000.0 : Double.NaN);
+        return state;
+    }
+
+    static class QueueState {
+        private volatile int consumers;
+        private volatile long depth;
+        private volatile double utilization;
+        private volatile Duration estimatedLatency;
+        private long lastSampleNanos;
+        private long lastBusyNanos;
+        private long lastProcessed;
+        private long lastChangeNanos;
+        private int upStreak;
+        private int downStreak;
+
+        QueueState(int consumers) {
+            this.consumers = consumers;
+        }
+
+        int consumers() {
+            return consumers;
+        }
+
+        void reset(long sampleNanos, long busyNanos, long processed) {
+            this.lastSampleNanos = sampleNanos;
+            this.lastBusyNanos = busyNanos;
+            this.lastProcessed = processed;
+        }
+    }
+}
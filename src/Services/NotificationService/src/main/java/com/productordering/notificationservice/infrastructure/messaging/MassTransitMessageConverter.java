@@ -1,5 +1,6 @@
 package com.productordering.notificationservice.infrastructure.messaging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -9,13 +10,25 @@ import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConversionException;
 
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Custom message converter that handles MassTransit message envelope format.
  * MassTransit wraps messages in an envelope with metadata. This converter
- * extracts the actual message payload from the "message" property.
+ * extracts the actual message payload from the "message" property, and wraps
+ * outgoing messages in the same envelope so .NET consumers can receive them.
  */
 public class MassTransitMessageConverter extends Jackson2JsonMessageConverter {
     
+    public static final String CONTENT_TYPE = "application/vnd.masstransit+json";
+    private static final String MESSAGE_TYPE_NAMESPACE = "ProductOrderingSystem.Shared.Contracts.Events";
+    
     private static final Logger log = LoggerFactory.getLogger(MassTransitMessageConverter.class);
     private final ObjectMapper objectMapper;
     
@@ -78,4 +91,38 @@ public class MassTransitMessageConverter extends Jackson2JsonMessageConverter {
             throw new MessageConversionException("Failed to convert MassTransit message", ex);
         }
     }
+    
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties, Type genericType)
+            throws MessageConversionException {
+        String messageId = messageProperties.getMessageId() != null
+            ? messageProperties.getMessageId()
+            : UUID.randomUUID().toString();
+        
+        // Message types are matched by URN, so the Java class name must match the C# contract name
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("messageId", messageId);
+        if (messageProperties.getCorrelationId() != null) {
+            envelope.put("correlationId", messageProperties.getCorrelationId());
+        }
+        envelope.put("messageType", List.of(
+            "urn:message:" + MESSAGE_TYPE_NAMESPACE + ":" + object.getClass().getSimpleName()));
+        envelope.put("message", object);
+        envelope.put("sentTime", Instant.now());
+        envelope.put("headers", Map.of());
+        envelope.put("host", Map.of(
+            "machineName", System.getenv().getOrDefault("HOSTNAME", "notification-service"),
+            "processName", "notification-service"));
+        
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(envelope);
+            messageProperties.setMessageId(messageId);
+            messageProperties.setContentType(CONTENT_TYPE);
+            messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        } catch (JsonProcessingException ex) {
+            throw new MessageConversionException("Failed to convert message to MassTransit envelope", ex);
+        }
+    }
 }
@@ -10,6 +10,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMqConfig {
     
@@ -31,6 +34,36 @@ public class RabbitMqConfig {
     @Value("${rabbitmq.exchanges.payment-failed}")
     private String paymentFailedExchange;
     
+    @Value("${rabbitmq.exchanges.notification-sent}")
+    private String notificationSentExchange;
+    
+    @Value("${rabbitmq.exchanges.notification-failed}")
+    private String notificationFailedExchange;
+    
+    @Value("${rabbitmq.queues.parking-lot}")
+    private String parkingLotQueue;
+    
+    @Value("${rabbitmq.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+    
+    @Value("${rabbitmq.retry.initial-interval:1000}")
+    private long retryInitialInterval;
+    
+    @Value("${rabbitmq.retry.multiplier:2.0}")
+    private double retryMultiplier;
+    
+    @Value("${rabbitmq.retry.max-interval:10000}")
+    private long retryMaxInterval;
+    
+    @Value("${rabbitmq.retry.parking-lot-interval:30000}")
+    private long parkingLotRetryInterval;
+    
+    @Value("${rabbitmq.autoscaling.min-consumers:1}")
+    private int minConsumers;
+    
+    @Value("${rabbitmq.listener.prefetch:20}")
+    private int prefetch;
+    
     @Bean
     public Jackson2JsonMessageConverter messageConverter(ObjectMapper objectMapper) {
         // Use custom MassTransit message converter to handle MassTransit envelope format
@@ -47,10 +80,16 @@ public class RabbitMqConfig {
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory, 
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            ListenerActivityTracker listenerActivityTracker,
+            DelayedRetryInterceptor delayedRetryInterceptor) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter(objectMapper));
+        // Starting point only; ListenerConcurrencyController rescales the consumer count at runtime
+        factory.setConcurrentConsumers(minConsumers);
+        factory.setPrefetchCount(prefetch);
+        factory.setAdviceChain(listenerActivityTracker, delayedRetryInterceptor);
         return factory;
     }
     
@@ -104,4 +143,46 @@ public class RabbitMqConfig {
         return BindingBuilder.bind(paymentFailedQueue())
                 .to(paymentFailedExchange());
     }
+    
+    // Outbound notification events (published, not consumed, by this service)
+    @Bean
+    public FanoutExchange notificationSentExchange() {
+        return new FanoutExchange(notificationSentExchange);
+    }
+    
+    @Bean
+    public FanoutExchange notificationFailedExchange() {
+        return new FanoutExchange(notificationFailedExchange);
+    }
+    
+    // Delay queues for retries: each one holds a failed message for its backoff and then
+    // dead-letters it back to the source queue through the default exchange
+    @Bean
+    public Declarables retryQueues() {
+        List<Declarable> queues = new ArrayList<>();
+        for (String queue : List.of(orderCreatedQueue, paymentProcessedQueue, paymentFailedQueue)) {
+            for (int attempt = 1; attempt < retryMaxAttempts; attempt++) {
+                long delay = DelayedRetryInterceptor.retryDelayMillis(
+                    attempt, retryInitialInterval, retryMultiplier, retryMaxInterval);
+                queues.add(QueueBuilder.durable(DelayedRetryInterceptor.retryQueueName(queue, attempt))
+                    .ttl((int) delay)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queue)
+                    .build());
+            }
+        }
+        // The parking lot retries forever, at a fixed interval, until the message is stored
+        queues.add(QueueBuilder.durable(DelayedRetryInterceptor.retryQueueName(parkingLotQueue, 1))
+            .ttl((int) parkingLotRetryInterval)
+            .deadLetterExchange("")
+            .deadLetterRoutingKey(parkingLotQueue)
+            .build());
+        return new Declarables(queues);
+    }
+    
+    // Parking lot for messages that exhausted their retries
+    @Bean
+    public Queue parkingLotQueue() {
+        return new Queue(parkingLotQueue, true);
+    }
 }
@@ -0,0 +1,247 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import com.productordering.notificationservice.application.messaging.events.NotificationFailedEvent;
+import com.productordering.notificationservice.application.messaging.events.NotificationSentEvent;
+import com.productordering.notificationservice.application.services.NotificationEventPublisher;
+import com.productordering.notificationservice.domain.entities.Notification;
+import com.productordering.notificationservice.domain.enums.NotificationStatus;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes NotificationSent/NotificationFailed events in the MassTransit envelope format.
+ * Events are buffered and sent in batches over a single channel; broker confirms arrive
+ * asynchronously and are matched back to the event by correlation id. Nacked events, and
+ * events whose confirm never arrives, are retried ahead of new ones, so delivery is
+ * at-least-once with a stable message id for consumers to de-duplicate on.
+ * <p>
+ * The buffer lives in memory only. Events are lost if it stays full for longer than the
+ * enqueue timeout, or if the service stops before the broker confirms them; both cases are
+ * counted in {@code notification.events.dropped} (tagged by reason) so they can be alerted on.
+ * The outcomes themselves are still recorded on the notification documents.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RabbitNotificationEventPublisher implements NotificationEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rabbitmq.exchanges.notification-sent}")
+    private String notificationSentExchange;
+
+    @Value("${rabbitmq.exchanges.notification-failed}")
+    private String notificationFailedExchange;
+
+    @Value("${rabbitmq.publisher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${rabbitmq.publisher.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${rabbitmq.publisher.enqueue-timeout:5s}")
+    private Duration enqueueTimeout;
+
+    @Value("${rabbitmq.publisher.confirm-timeout:30s}")
+    private Duration confirmTimeout;
+
+    private BlockingQueue<OutboundEvent> outbound;
+    private final Queue<OutboundEvent> retries = new ConcurrentLinkedQueue<>();
+    private final Map<String, OutboundEvent> awaitingConfirm = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        outbound = new LinkedBlockingQueue<>(maxPending);
+        rabbitTemplate.setConfirmCallback(this::onConfirm);
+        meterRegistry.gauge("notification.events.pending", this, RabbitNotificationEventPublisher::pending);
+    }
+
+    @Override
+    public void publishOutcome(Notification notification) {
+        OutboundEvent event;
+        if (notification.getStatus() == NotificationStatus.SENT) {
+            NotificationSentEvent sent = new NotificationSentEvent();
+            sent.setNotificationId(notification.getId());
+            sent.setOrderId(notification.getOrderId());
+            sent.setUserId(notification.getUserId());
+            sent.setNotificationType(notification.getType().name());
+            sent.setRecipient(notification.getRecipient());
+            sent.setSentAt(notification.getSentAt());
+            event = new OutboundEvent(notificationSentExchange, sent);
+        } else if (notification.getStatus() == NotificationStatus.FAILED) {
+            NotificationFailedEvent failed = new NotificationFailedEvent();
+            failed.setNotificationId(notification.getId());
+            failed.setOrderId(notification.getOrderId());
+            failed.setUserId(notification.getUserId());
+            failed.setNotificationType(notification.getType().name());
+            failed.setRecipient(notification.getRecipient());
+            failed.setReason(notification.getErrorMessage());
+            failed.setFailedAt(Instant.now());
+            event = new OutboundEvent(notificationFailedExchange, failed);
+        } else {
+            return;
+        }
+
+        try {
+            // Blocks the sending thread when the broker falls behind instead of growing without bound
+            if (!outbound.offer(event, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.error("Outbound event buffer full, dropping {} for notification {}",
+                    event.payload.getClass().getSimpleName(), notification.getId());
+                dropped("buffer-full", 1);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            dropped("interrupted", 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rabbitmq.publisher.flush-interval:100}")
+    public void flush() {
+        requeueUnconfirmed();
+
+        List<OutboundEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            OutboundEvent retry;
+            while (batch.size() < batchSize && (retry = retries.poll()) != null) {
+                batch.add(retry);
+            }
+            outbound.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!publishBatch(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!awaitingConfirm.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int unconfirmed = pending();
+        if (unconfirmed > 0) {
+            log.error("Shutting down with {} notification events not confirmed by the broker, dropping them",
+                unconfirmed);
+            dropped("shutdown", unconfirmed);
+        }
+    }
+
+    private int pending() {
+        return awaitingConfirm.size() + retries.size() + (outbound == null ? 0 : outbound.size());
+    }
+
+    private void dropped(String reason, int count) {
+        meterRegistry.counter("notification.events.dropped", "reason", reason).increment(count);
+    }
+
+    private boolean publishBatch(List<OutboundEvent> batch) {
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (OutboundEvent event : batch) {
+                    MessageProperties properties = new MessageProperties();
+                    properties.setMessageId(event.messageId);
+                    Message message = rabbitTemplate.getMessageConverter().toMessage(event.payload, properties);
+
+                    CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+                    event.correlationId = correlation.getId();
+                    event.publishedAt = System.nanoTime();
+                    awaitingConfirm.put(correlation.getId(), event);
+                    operations.send(event.exchange, "", message, correlation);
+                }
+                return null;
+            });
+            log.debug("Published {} notification events", batch.size());
+            return true;
+        } catch (Exception ex) {
+            log.warn("Failed to publish notification events, will retry: {}", ex.getMessage());
+            for (OutboundEvent event : batch) {
+                if (event.correlationId == null || awaitingConfirm.remove(event.correlationId) != null) {
+                    retry(event);
+                }
+            }
+            return false;
+        }
+    }
+
+    private void onConfirm(CorrelationData correlation, boolean ack, String cause) {
+        if (correlation == null) {
+            return;
+        }
+
+        OutboundEvent event = awaitingConfirm.remove(correlation.getId());
+        if (event == null) {
+            // Already timed out and queued for retry
+            return;
+        }
+        if (!ack) {
+            log.warn("Broker nacked {} {} (attempt {}): {}",
+                event.payload.getClass().getSimpleName(), event.messageId, event.attempts, cause);
+            retry(event);
+        }
+    }
+
+    private void requeueUnconfirmed() {
+        long now = System.nanoTime();
+        awaitingConfirm.forEach((correlationId, event) -> {
+            if (now - event.publishedAt > confirmTimeout.toNanos() && awaitingConfirm.remove(correlationId, event)) {
+                log.warn("No broker confirm for {} {} within {}, retrying",
+                    event.payload.getClass().getSimpleName(), event.messageId, confirmTimeout);
+                retry(event);
+            }
+        });
+    }
+
+    private void retry(OutboundEvent event) {
+        event.correlationId = null;
+        event.attempts++;
+        retries.add(event);
+    }
+
+    private static class OutboundEvent {
+        private final String exchange;
+        private final Object payload;
+        private final String messageId = UUID.randomUUID().toString();
+        private volatile String correlationId;
+        private volatile long publishedAt;
+        private volatile int attempts = 1;
+
+        OutboundEvent(String exchange, Object payload) {
+            this.exchange = exchange;
+            this.payload = payload;
+        }
+    }
+}
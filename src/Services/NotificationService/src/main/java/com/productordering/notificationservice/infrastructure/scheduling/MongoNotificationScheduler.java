@@ -0,0 +1,378 @@
+package com.productordering.notificationservice.infrastructure.scheduling;
+
+import com.productordering.notificationservice.application.services.NotificationScheduler;
+import com.productordering.notificationservice.application.services.NotificationService;
+import com.productordering.notificationservice.domain.entities.ScheduledNotification;
+import com.productordering.notificationservice.domain.enums.ScheduledNotificationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Persistent notification scheduler backed by the scheduled_notifications collection.
+ * Timers due within the near-term horizon are claimed under a lease and armed on an
+ * in-memory {@link HashedTimerWheel}; everything further out stays in MongoDB until a
+ * poll brings it into the horizon. Replicas claim due timers in batches with an update
+ * guarded on status and lease, and a timer whose owner dies is reclaimed once its lease
+ * expires.
+ * <p>
+ * A timer is only marked FIRED after its email has been sent, so delivery is at-least-once:
+ * a replica that dies between sending and marking leaves the timer to be re-sent by whoever
+ * reclaims it. Failed sends are retried on lease expiry up to {@code max-attempts} times.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoNotificationScheduler implements NotificationScheduler {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+
+    @Value("${notifications.scheduler.tick-duration:100ms}")
+    private Duration tickDuration;
+
+    @Value("${notifications.scheduler.ticks-per-wheel:512}")
+    private int ticksPerWheel;
+
+    @Value("${notifications.scheduler.horizon:5m}")
+    private Duration horizon;
+
+    @Value("${notifications.scheduler.lease-duration:10m}")
+    private Duration leaseDuration;
+
+    @Value("${notifications.scheduler.claim-batch-size:500}")
+    private int claimBatchSize;
+
+    @Value("${notifications.scheduler.max-in-memory:100000}")
+    private int maxInMemory;
+
+    @Value("${notifications.scheduler.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${notifications.scheduler.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${notifications.scheduler.completed-retention:7d}")
+    private Duration completedRetention;
+
+    private final String instanceId = System.getenv().getOrDefault("HOSTNAME", "notification-service")
+            + "-" + UUID.randomUUID();
+    private final Map<String, HashedTimerWheel.Timeout> localTimers = new ConcurrentHashMap<>();
+    private ExecutorService dispatchExecutor;
+    private HashedTimerWheel wheel;
+    private volatile boolean indexesEnsured;
+
+    @PostConstruct
+    public void start() {
+        if (leaseDuration.compareTo(horizon) <= 0) {
+            throw new IllegalStateException(
+                "notifications.scheduler.lease-duration must be longer than notifications.scheduler.horizon");
+        }
+
+        dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads,
+            Thread.ofPlatform().name("notification-timer-dispatch-", 0).daemon().factory());
+        wheel = new HashedTimerWheel("notification-timer-wheel", tickDuration, ticksPerWheel, dispatchExecutor);
+        wheel.start();
+        log.info("Notification scheduler {} started (horizon: {}, lease: {})", instanceId, horizon, leaseDuration);
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+        dispatchExecutor.shutdown();
+        releaseLeases();
+    }
+
+    @Override
+    public boolean schedule(ScheduledNotification notification) {
+        Instant now = Instant.now();
+        boolean nearTerm = !notification.getDueAt().isAfter(now.plus(horizon))
+            && localTimers.size() < maxInMemory;
+
+        Update update = new Update()
+            .set("type", notification.getType())
+            .set("userId", notification.getUserId())
+            .set("orderId", notification.getOrderId())
+            .set("attributes", notification.getAttributes())
+            .set("dueAt", notification.getDueAt())
+            .set("attempts", 0)
+            .set("createdAt", notification.getCreatedAt());
+        if (nearTerm) {
+            notification.setStatus(ScheduledNotificationStatus.CLAIMED);
+            notification.setLeaseOwner(instanceId);
+            notification.setLeaseExpiresAt(now.plus(leaseDuration).truncatedTo(ChronoUnit.MILLIS));
+            update.set("status", notification.getStatus())
+                .set("leaseOwner", notification.getLeaseOwner())
+                .set("leaseExpiresAt", notification.getLeaseExpiresAt());
+        } else {
+            update.set("status", ScheduledNotificationStatus.PENDING)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        }
+
+        // Only a live timer due at a different time is replaced. A fired or cancelled key, or a
+        // redelivery of the event that already scheduled this dueAt, fails the match and the upsert's
+        // insert then collides on _id, so the timer is neither revived nor has its attempts reset
+        Query query = liveTimer(notification.getId());
+        query.addCriteria(where("dueAt").ne(notification.getDueAt()));
+        try {
+            mongoTemplate.upsert(query, update, ScheduledNotification.class);
+        } catch (DuplicateKeyException ex) {
+            log.info("Scheduled notification {} is already due at {}, has fired or has been cancelled, "
+                + "not rescheduling", notification.getId(), notification.getDueAt());
+            return false;
+        }
+        cancelLocal(notification.getId());
+
+        if (nearTerm) {
+            arm(notification);
+        }
+
+        log.info("Scheduled {} notification {} for {}",
+            notification.getType(), notification.getId(), notification.getDueAt());
+        return true;
+    }
+
+    @Override
+    public boolean cancel(String key) {
+        cancelLocal(key);
+
+        Instant now = Instant.now();
+        Update update = new Update()
+            .set("status", ScheduledNotificationStatus.CANCELLED)
+            .set("completedAt", now)
+            .unset("leaseOwner")
+            .unset("leaseExpiresAt");
+
+        boolean cancelled = mongoTemplate.updateFirst(liveTimer(key), update, ScheduledNotification.class)
+            .getModifiedCount() > 0;
+        if (cancelled) {
+            log.info("Cancelled scheduled notification {}", key);
+            return true;
+        }
+
+        // Leave a tombstone for keys not scheduled yet, so an event that arrives out of order
+        // (e.g. a replayed OrderCreatedEvent after the payment succeeded) cannot schedule it later
+        try {
+            ScheduledNotification tombstone = new ScheduledNotification();
+            tombstone.setId(key);
+            tombstone.setStatus(ScheduledNotificationStatus.CANCELLED);
+            tombstone.setCreatedAt(now);
+            tombstone.setCompletedAt(now);
+            mongoTemplate.insert(tombstone);
+        } catch (DuplicateKeyException ex) {
+            // Already fired or cancelled
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.scheduler.poll-interval:5000}")
+    public void claimDueTimers() {
+        try {
+            ensureIndexes();
+
+            int capacity = maxInMemory - localTimers.size();
+            int claimed = 0;
+            while (claimed < capacity) {
+                int batchSize = Math.min(claimBatchSize, capacity - claimed);
+                List<ScheduledNotification> batch = claimBatch(batchSize);
+                if (batch == null) {
+                    break;
+                }
+                batch.forEach(this::arm);
+                claimed += batch.size();
+            }
+
+            if (claimed > 0) {
+                log.debug("Claimed {} scheduled notifications ({} armed locally)", claimed, wheel.pendingTimeouts());
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to claim due scheduled notifications: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Claims up to {@code batchSize} due timers in three round trips: find candidate ids,
+     * claim them with one updateMulti that re-checks status and lease, then read back the
+     * ones this replica won. Returns null once there are no candidates left.
+     */
+    private List<ScheduledNotification> claimBatch(int batchSize) {
+        Instant now = Instant.now();
+        Query candidates = new Query(claimable(now)).with(Sort.by("dueAt")).limit(batchSize);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, ScheduledNotification.class).stream()
+            .map(ScheduledNotification::getId)
+            .toList();
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        // The lease expiry doubles as a claim token for reading back this batch
+        Instant leaseExpiresAt = now.plus(leaseDuration).truncatedTo(ChronoUnit.MILLIS);
+        Update update = new Update()
+            .set("status", ScheduledNotificationStatus.CLAIMED)
+            .set("leaseOwner", instanceId)
+            .set("leaseExpiresAt", leaseExpiresAt);
+        mongoTemplate.updateMulti(
+            new Query(new Criteria().andOperator(where("_id").in(ids), claimable(now))),
+            update, ScheduledNotification.class);
+
+        List<ScheduledNotification> won = mongoTemplate.find(
+            new Query(where("_id").in(ids)
+                .and("status").is(ScheduledNotificationStatus.CLAIMED)
+                .and("leaseOwner").is(instanceId)
+                .and("leaseExpiresAt").is(leaseExpiresAt)),
+            ScheduledNotification.class);
+        if (won.size() < ids.size()) {
+            log.debug("Claimed {} of {} candidate timers, the rest went to other replicas", won.size(), ids.size());
+        }
+        return ids.size() < batchSize && won.isEmpty() ? null : won;
+    }
+
+    private Criteria claimable(Instant now) {
+        return new Criteria().orOperator(
+            where("status").is(ScheduledNotificationStatus.PENDING).and("dueAt").lte(now.plus(horizon)),
+            where("status").is(ScheduledNotificationStatus.CLAIMED).and("leaseExpiresAt").lt(now));
+    }
+
+    private static Query liveTimer(String key) {
+        return new Query(where("_id").is(key)
+            .and("status").in(ScheduledNotificationStatus.PENDING, ScheduledNotificationStatus.CLAIMED));
+    }
+
+    private void arm(ScheduledNotification notification) {
+        HashedTimerWheel.Timeout timeout = wheel.schedule(notification.getDueAt(), () -> fire(notification));
+        HashedTimerWheel.Timeout previous = localTimers.put(notification.getId(), timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancelLocal(String key) {
+        HashedTimerWheel.Timeout timeout = localTimers.remove(key);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void fire(ScheduledNotification notification) {
+        localTimers.computeIfPresent(notification.getId(), (key, timeout) -> timeout.isExpired() ? null : timeout);
+
+        ScheduledNotification firing;
+        try {
+            // Only the current lease owner may fire, and only the version it armed. The lease is
+            // renewed for the send, so nobody else reclaims the timer while the email goes out
+            Query query = new Query(where("_id").is(notification.getId())
+                .and("status").is(ScheduledNotificationStatus.CLAIMED)
+                .and("leaseOwner").is(instanceId)
+                .and("dueAt").is(notification.getDueAt()));
+            Update update = new Update()
+                .inc("attempts", 1)
+                .set("leaseExpiresAt", Instant.now().plus(leaseDuration).truncatedTo(ChronoUnit.MILLIS));
+
+            firing = mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), ScheduledNotification.class);
+        } catch (Exception ex) {
+            log.error("Failed to fire scheduled notification {}, retrying once its lease expires",
+                notification.getId(), ex);
+            return;
+        }
+        if (firing == null) {
+            log.debug("Scheduled notification {} was cancelled or reclaimed before firing", notification.getId());
+            return;
+        }
+
+        try {
+            notificationService.sendScheduledNotification(firing);
+        } catch (Exception ex) {
+            if (firing.getAttempts() >= maxAttempts) {
+                complete(firing, ScheduledNotificationStatus.FAILED);
+                log.error("Giving up on scheduled notification {} after {} attempts",
+                    firing.getId(), firing.getAttempts());
+            } else {
+                // Lease is left in place so the timer is retried once it expires
+                log.warn("Scheduled notification {} failed on attempt {}, retrying once its lease expires",
+                    firing.getId(), firing.getAttempts());
+            }
+            return;
+        }
+
+        complete(firing, ScheduledNotificationStatus.FIRED);
+    }
+
+    private void complete(ScheduledNotification notification, ScheduledNotificationStatus status) {
+        try {
+            Query query = new Query(where("_id").is(notification.getId())
+                .and("status").is(ScheduledNotificationStatus.CLAIMED)
+                .and("leaseOwner").is(instanceId));
+            Update update = new Update()
+                .set("status", status)
+                .set("completedAt", Instant.now())
+                .unset("leaseExpiresAt");
+            mongoTemplate.updateFirst(query, update, ScheduledNotification.class);
+        } catch (Exception ex) {
+            log.error("Failed to mark scheduled notification {} as {}, it will be retried once its lease expires",
+                notification.getId(), status, ex);
+        }
+    }
+
+    private void releaseLeases() {
+        if (localTimers.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(localTimers.keySet());
+        try {
+            Query query = new Query(where("_id").in(keys)
+                .and("status").is(ScheduledNotificationStatus.CLAIMED)
+                .and("leaseOwner").is(instanceId));
+            Update update = new Update()
+                .set("status", ScheduledNotificationStatus.PENDING)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+            mongoTemplate.updateMulti(query, update, ScheduledNotification.class);
+            log.info("Released {} scheduled notification leases", keys.size());
+        } catch (Exception ex) {
+            log.warn("Failed to release scheduled notification leases, they will expire: {}", ex.getMessage());
+        }
+    }
+
+    private void ensureIndexes() {
+        if (indexesEnsured) {
+            return;
+        }
+
+        IndexOperations indexOps = mongoTemplate.indexOps(ScheduledNotification.class);
+        indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC).on("dueAt", Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index().on("status", Sort.Direction.ASC).on("leaseExpiresAt", Sort.Direction.ASC));
+        // Fired and cancelled timers age out; pending ones have no completedAt and never expire
+        indexOps.ensureIndex(new Index().on("completedAt", Sort.Direction.ASC).expire(completedRetention));
+        indexesEnsured = true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.productordering.notificationservice.presentation.controllers;
+
+import com.productordering.notificationservice.application.analytics.NotificationAnalyticsService;
+import com.productordering.notificationservice.application.analytics.NotificationAnalyticsSummary;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/notifications/analytics")
+@RequiredArgsConstructor
+public class NotificationAnalyticsController {
+    
+    private final NotificationAnalyticsService analyticsService;
+    
+    @GetMapping
+    public ResponseEntity<NotificationAnalyticsSummary> getSummary(
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsService.getSummary(type, start, end));
+    }
+}
@@ -0,0 +1,84 @@
+package com.productordering.notificationservice.presentation.controllers;
+
+import com.productordering.notificationservice.application.parkinglot.ParkedMessageFilter;
+import com.productordering.notificationservice.application.parkinglot.ParkingLotService;
+import com.productordering.notificationservice.application.parkinglot.ReplayJob;
+import com.productordering.notificationservice.application.parkinglot.ReplayRequest;
+import com.productordering.notificationservice.domain.entities.ParkedMessage;
+import com.productordering.notificationservice.domain.enums.ParkedMessageStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/notifications/parking-lot")
+@RequiredArgsConstructor
+public class ParkingLotController {
+    
+    private final ParkingLotService parkingLotService;
+    
+    @GetMapping
+    public ResponseEntity<List<ParkedMessage>> getParkedMessages(
+            @RequestParam(required = false) String queue,
+            @RequestParam(required = false) String exceptionType,
+            @RequestParam(required = false) ParkedMessageStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "50") int limit) {
+        ParkedMessageFilter filter = filter(queue, exceptionType, status, from, to);
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(parkingLotService.count(filter)))
+            .body(parkingLotService.find(filter, limit));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<ParkedMessage> getParkedMessage(@PathVariable String id) {
+        return parkingLotService.findById(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/replays")
+    public ResponseEntity<ReplayJob> startReplay(@RequestBody ReplayRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(parkingLotService.startReplay(request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/replays")
+    public ResponseEntity<List<ReplayJob>> getReplays() {
+        return ResponseEntity.ok(parkingLotService.getReplays());
+    }
+    
+    @GetMapping("/replays/{jobId}")
+    public ResponseEntity<ReplayJob> getReplay(@PathVariable String jobId) {
+        return parkingLotService.getReplay(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/replays/{jobId}/cancel")
+    public ResponseEntity<ReplayJob> cancelReplay(@PathVariable String jobId) {
+        return parkingLotService.cancelReplay(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private static ParkedMessageFilter filter(
+            String queue, String exceptionType, ParkedMessageStatus status, Instant from, Instant to) {
+        ParkedMessageFilter filter = new ParkedMessageFilter();
+        filter.setQueue(queue);
+        filter.setExceptionType(exceptionType);
+        filter.setStatus(status);
+        filter.setFrom(from);
+        filter.setTo(to);
+        return filter;
+    }
+}
@@ -0,0 +1,35 @@
+package com.productordering.notificationservice.application.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketUpperBoundCoversLatencyWithinTenPercent() {
+        for (long millis : new long[] {0, 1, 2, 7, 150, 999, 12_345, 86_400_000}) {
+            long upper = LatencyHistogram.upperBoundMillis(LatencyHistogram.bucketFor(millis));
+            assertTrue(upper >= millis, "upper bound " + upper + " below " + millis);
+            assertTrue(upper <= Math.max(1, Math.ceil(millis * 1.1)) + 1, "upper bound " + upper + " too far from " + millis);
+        }
+    }
+
+    @Test
+    void percentileReadsFromMergedBuckets() {
+        Map<String, Long> buckets = new HashMap<>();
+        for (long millis = 1; millis <= 1000; millis++) {
+            buckets.merge(String.valueOf(LatencyHistogram.bucketFor(millis)), 1L, Long::sum);
+        }
+
+        long p50 = LatencyHistogram.percentile(buckets, 0.50);
+        long p99 = LatencyHistogram.percentile(buckets, 0.99);
+
+        assertTrue(p50 >= 500 && p50 <= 550, "p50 was " + p50);
+        assertTrue(p99 >= 990 && p99 <= 1090, "p99 was " + p99);
+        assertEquals(0, LatencyHistogram.percentile(new HashMap<>(), 0.5));
+    }
+}
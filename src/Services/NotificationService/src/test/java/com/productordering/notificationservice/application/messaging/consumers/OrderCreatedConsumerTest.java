@@ -0,0 +1,105 @@
+package com.productordering.notificationservice.application.messaging.consumers;
+
+import com.productordering.notificationservice.application.analytics.NotificationRollupRecorder;
+import com.productordering.notificationservice.application.messaging.events.OrderCreatedEvent;
+import com.productordering.notificationservice.application.services.EmailService;
+import com.productordering.notificationservice.application.services.NotificationEventPublisher;
+import com.productordering.notificationservice.application.services.NotificationReminderService;
+import com.productordering.notificationservice.application.services.NotificationService;
+import com.productordering.notificationservice.domain.entities.Notification;
+import com.productordering.notificationservice.domain.enums.NotificationStatus;
+import com.productordering.notificationservice.domain.repositories.NotificationRepository;
+import com.productordering.notificationservice.infrastructure.messaging.ConfirmedPublisher;
+import com.productordering.notificationservice.infrastructure.messaging.DelayedRetryInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderCreatedConsumerTest {
+
+    private static final String QUEUE = "notification-service-order-created";
+
+    private EmailService emailService;
+    private NotificationEventPublisher eventPublisher;
+    private ConfirmedPublisher retryPublisher;
+    private OrderCreatedConsumer consumer;
+    private DelayedRetryInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        eventPublisher = mock(NotificationEventPublisher.class);
+        TemplateEngine templateEngine = mock(TemplateEngine.class);
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        NotificationService notificationService = new NotificationService(emailService,
+            mock(NotificationRepository.class), templateEngine, mock(NotificationRollupRecorder.class), eventPublisher);
+        consumer = new OrderCreatedConsumer(notificationService, mock(NotificationReminderService.class));
+
+        retryPublisher = mock(ConfirmedPublisher.class);
+        interceptor = new DelayedRetryInterceptor(retryPublisher);
+        ReflectionTestUtils.setField(interceptor, "parkingLotQueue", "notification-service-parking-lot");
+        ReflectionTestUtils.setField(interceptor, "maxAttempts", 3);
+    }
+
+    @Test
+    void failedSendIsRoutedToTheFirstRetryQueue() throws Throwable {
+        doThrow(new IllegalStateException("SendGrid returned 503")).when(emailService).sendEmail(any(), any(), any());
+
+        interceptor.invoke(listenerInvocation(orderCreated()));
+
+        verify(retryPublisher).sendToQueue(eq(QUEUE + ".retry-1"), any(Message.class));
+        ArgumentCaptor<Notification> outcome = ArgumentCaptor.forClass(Notification.class);
+        verify(eventPublisher).publishOutcome(outcome.capture());
+        assertEquals(NotificationStatus.FAILED, outcome.getValue().getStatus());
+    }
+
+    @Test
+    void successfulSendIsAcknowledged() throws Throwable {
+        interceptor.invoke(listenerInvocation(orderCreated()));
+
+        verify(emailService).sendEmail(eq("customer@example.com"), anyString(), eq("<html></html>"));
+        verifyNoInteractions(retryPublisher);
+    }
+
+    private MethodInvocation listenerInvocation(OrderCreatedEvent event) throws Throwable {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(QUEUE);
+        properties.setMessageId("message-1");
+        Message message = new Message("{}".getBytes(), properties);
+
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(new Object[] {null, message});
+        when(invocation.proceed()).thenAnswer(call -> {
+            consumer.handleOrderCreated(event);
+            return null;
+        });
+        return invocation;
+    }
+
+    private static OrderCreatedEvent orderCreated() {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setOrderId(UUID.randomUUID());
+        event.setCustomerId(UUID.randomUUID());
+        event.setTotalAmount(new BigDecimal("42.00"));
+        event.setItems(List.of());
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+}
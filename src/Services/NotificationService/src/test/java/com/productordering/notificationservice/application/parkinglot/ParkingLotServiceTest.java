@@ -0,0 +1,176 @@
+package com.productordering.notificationservice.application.parkinglot;
+
+import com.mongodb.client.result.UpdateResult;
+import com.productordering.notificationservice.domain.entities.ParkedMessage;
+import com.productordering.notificationservice.domain.enums.ParkedMessageStatus;
+import com.productordering.notificationservice.domain.repositories.ParkedMessageRepository;
+import com.productordering.notificationservice.infrastructure.messaging.ConfirmedPublisher;
+import com.productordering.notificationservice.infrastructure.messaging.DelayedRetryInterceptor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ParkingLotServiceTest {
+
+    private static final String QUEUE = "notification-service-order-created";
+
+    private MongoTemplate mongoTemplate;
+    private ConfirmedPublisher publisher;
+    private ParkingLotService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        publisher = mock(ConfirmedPublisher.class);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(ParkedMessage.class)))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        service = new ParkingLotService(mock(ParkedMessageRepository.class), mongoTemplate, publisher,
+            mock(AmqpAdmin.class));
+        ReflectionTestUtils.setField(service, "maxRate", 200);
+        ReflectionTestUtils.setField(service, "maxQueueDepth", 1000L);
+        ReflectionTestUtils.setField(service, "capacityCheckInterval", 50);
+        ReflectionTestUtils.setField(service, "replayPageSize", 100);
+        ReflectionTestUtils.setField(service, "claimTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "jobRetention", Duration.ofDays(7));
+    }
+
+    @Test
+    void parkKeepsRawBodyAndTypedHeadersUnderDerivedId() {
+        byte[] body = {(byte) 0xC3, 0x28, 0x00, (byte) 0xFF}; // not valid UTF-8
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId("message-1");
+        properties.setHeader("MT-Retry", 2);
+        properties.setHeader(DelayedRetryInterceptor.ORIGINAL_QUEUE_HEADER, QUEUE);
+        properties.setHeader(DelayedRetryInterceptor.RETRY_COUNT_HEADER, 1);
+
+        service.park(new Message(body, properties));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(ParkedMessage.class));
+        assertEquals(QUEUE + ":message-1", query.getValue().getQueryObject().get("_id"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertArrayEquals(body, (byte[]) set.get("body"));
+        assertEquals(Map.of("MT-Retry", 2), set.get("headers"));
+    }
+
+    @Test
+    void replaySkipsMessagesClaimedByAnotherReplay() {
+        ReplayJob job = job();
+        ParkedMessage first = parked("a");
+        ParkedMessage second = parked("b");
+        when(mongoTemplate.find(any(Query.class), eq(ParkedMessage.class)))
+            .thenReturn(List.of(first, second), List.of());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ParkedMessage.class))).thenReturn(first, (ParkedMessage) null);
+
+        service.runReplay(job);
+
+        verify(publisher, times(1)).sendToQueue(eq(QUEUE), any(Message.class));
+        assertEquals(1, job.getReplayed());
+        assertEquals(ReplayJob.Status.COMPLETED, job.getStatus());
+        assertEquals(ParkedMessageStatus.REPLAYED, completedStatus());
+    }
+
+    @Test
+    void failedReplayReturnsMessageToParked() {
+        ReplayJob job = job();
+        ParkedMessage message = parked("a");
+        when(mongoTemplate.find(any(Query.class), eq(ParkedMessage.class)))
+            .thenReturn(List.of(message), List.of());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ParkedMessage.class))).thenReturn(message);
+        doThrow(new AmqpException("broker nacked")).when(publisher).sendToQueue(any(), any());
+
+        service.runReplay(job);
+
+        assertEquals(1, job.getFailed());
+        assertEquals(ParkedMessageStatus.PARKED, completedStatus());
+    }
+
+    @Test
+    void replayStopsAtMessagesReParkedAfterTheJobStarted() {
+        ReplayJob job = job();
+        ParkedMessage message = parked("a");
+        ParkedMessage reParked = parked("a");
+        reParked.setParkedAt(job.getCreatedAt().plusSeconds(1));
+        when(mongoTemplate.find(any(Query.class), eq(ParkedMessage.class)))
+            .thenReturn(List.of(message), List.of(reParked), List.of());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ParkedMessage.class))).thenReturn(message, reParked);
+        doThrow(new AmqpException("broker nacked")).when(publisher).sendToQueue(any(), any());
+
+        service.runReplay(job);
+
+        verify(publisher, times(1)).sendToQueue(eq(QUEUE), any(Message.class));
+        assertEquals(1, job.getFailed());
+        ArgumentCaptor<Query> pages = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(pages.capture(), eq(ParkedMessage.class));
+        Document snapshot = pages.getAllValues().get(0).getQueryObject().getList("$and", Document.class).get(1);
+        assertEquals(job.getCreatedAt(), snapshot.get("parkedAt", Document.class).get("$lte"));
+    }
+
+    @Test
+    void replayIsCancelledFromAnotherReplica() {
+        ReplayJob job = job();
+        ReplayJob stored = job();
+        stored.setCancelRequested(true);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ReplayJob.class))).thenReturn(stored);
+
+        service.runReplay(job);
+
+        assertEquals(ReplayJob.Status.CANCELLED, job.getStatus());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(ParkedMessage.class));
+    }
+
+    @Test
+    void onlyParkedMessagesCanBeReplayed() {
+        ReplayRequest request = new ReplayRequest();
+        request.getFilter().setStatus(ParkedMessageStatus.REPLAYED);
+
+        assertThrows(IllegalArgumentException.class, () -> service.startReplay(request));
+    }
+
+    private ParkedMessageStatus completedStatus() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(ParkedMessage.class));
+        return (ParkedMessageStatus) update.getValue().getUpdateObject().get("$set", Document.class).get("status");
+    }
+
+    private static ReplayJob job() {
+        ParkedMessageFilter filter = new ParkedMessageFilter();
+        filter.setStatus(ParkedMessageStatus.PARKED);
+        return ReplayJob.create(filter, 200, null);
+    }
+
+    private static ParkedMessage parked(String messageId) {
+        ParkedMessage parked = ParkedMessage.create(messageId, QUEUE, "application/vnd.masstransit+json", Map.of(),
+            "{}".getBytes(), IllegalStateException.class.getName(), "boom", 3, null);
+        parked.setParkedAt(Instant.now().minus(Duration.ofMinutes(1)));
+        return parked;
+    }
+}
@@ -0,0 +1,80 @@
+package com.productordering.notificationservice.application.services;
+
+import com.productordering.notificationservice.application.messaging.events.OrderCreatedEvent;
+import com.productordering.notificationservice.application.messaging.events.PaymentFailedEvent;
+import com.productordering.notificationservice.domain.entities.ScheduledNotification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationReminderServiceTest {
+
+    private NotificationScheduler scheduler;
+    private NotificationReminderService reminderService;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = mock(NotificationScheduler.class);
+        reminderService = new NotificationReminderService(scheduler);
+        ReflectionTestUtils.setField(reminderService, "paymentReminderDelay", Duration.ofHours(24));
+        ReflectionTestUtils.setField(reminderService, "orderPendingDelay", Duration.ofHours(2));
+    }
+
+    @Test
+    void redeliveredEventKeepsTheSameDueAt() {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.123Z");
+        OrderCreatedEvent event = orderCreated(createdAt);
+
+        reminderService.scheduleOrderPendingReminder(event);
+        reminderService.scheduleOrderPendingReminder(event);
+
+        ArgumentCaptor<ScheduledNotification> scheduled = ArgumentCaptor.forClass(ScheduledNotification.class);
+        verify(scheduler, times(2)).schedule(scheduled.capture());
+        assertEquals(createdAt.plus(Duration.ofHours(2)), scheduled.getAllValues().get(0).getDueAt());
+        assertEquals(scheduled.getAllValues().get(0).getDueAt(), scheduled.getAllValues().get(1).getDueAt());
+    }
+
+    @Test
+    void paymentReminderIsDueRelativeToTheFailure() {
+        Instant failedAt = Instant.parse("2024-05-01T10:15:30Z");
+        PaymentFailedEvent event = new PaymentFailedEvent();
+        event.setOrderId(UUID.randomUUID());
+        event.setFailedAt(failedAt);
+
+        reminderService.schedulePaymentReminder(event);
+
+        ArgumentCaptor<ScheduledNotification> scheduled = ArgumentCaptor.forClass(ScheduledNotification.class);
+        verify(scheduler).schedule(scheduled.capture());
+        assertEquals(failedAt.plus(Duration.ofHours(24)), scheduled.getValue().getDueAt());
+    }
+
+    @Test
+    void missingEventTimeFallsBackToNow() {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        reminderService.scheduleOrderPendingReminder(orderCreated(null));
+
+        ArgumentCaptor<ScheduledNotification> scheduled = ArgumentCaptor.forClass(ScheduledNotification.class);
+        verify(scheduler).schedule(scheduled.capture());
+        assertFalse(scheduled.getValue().getDueAt().isBefore(before.plus(Duration.ofHours(2))));
+    }
+
+    private static OrderCreatedEvent orderCreated(Instant createdAt) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setOrderId(UUID.randomUUID());
+        event.setCustomerId(UUID.randomUUID());
+        event.setTotalAmount(new BigDecimal("42.00"));
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
@@ -0,0 +1,91 @@
+package com.productordering.notificationservice.infrastructure.analytics;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.productordering.notificationservice.domain.entities.Notification;
+import com.productordering.notificationservice.domain.entities.NotificationRollup;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoNotificationRollupRecorderTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private MongoNotificationRollupRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.indexOps(NotificationRollup.class)).thenReturn(mock(IndexOperations.class));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationRollup.class)).thenReturn(bulk);
+
+        recorder = new MongoNotificationRollupRecorder(mongoTemplate);
+        ReflectionTestUtils.setField(recorder, "bucketSize", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void partiallyFailedBulkRetriesOnlyTheFailedUpserts() {
+        recorder.record(sent(NotificationType.ORDER_CONFIRMATION));
+        recorder.record(sent(NotificationType.PAYMENT_SUCCESS));
+        when(bulk.execute()).thenThrow(partialFailure(1)).thenReturn(BulkWriteResult.unacknowledged());
+
+        recorder.flush();
+        recorder.flush();
+
+        ArgumentCaptor<Query> upserts = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(3)).upsert(upserts.capture(), any(Update.class));
+        List<Query> queries = upserts.getAllValues();
+        assertEquals(queries.get(1).getQueryObject().get("_id"), queries.get(2).getQueryObject().get("_id"));
+    }
+
+    @Test
+    void failedFlushRetriesWholeBatch() {
+        recorder.record(sent(NotificationType.ORDER_CONFIRMATION));
+        recorder.record(sent(NotificationType.ORDER_CONFIRMATION));
+        when(bulk.execute()).thenThrow(new IllegalStateException("connection refused"))
+            .thenReturn(BulkWriteResult.unacknowledged());
+
+        recorder.flush();
+        recorder.flush();
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), updates.capture());
+        assertEquals(2L, updates.getValue().getUpdateObject().get("$inc", Document.class).get("count"));
+    }
+
+    private static Notification sent(NotificationType type) {
+        Notification notification = Notification.create(UUID.randomUUID(), UUID.randomUUID(), type,
+            "customer@example.com", "subject", "body");
+        notification.markAsSent();
+        return notification;
+    }
+
+    private static BulkOperationException partialFailure(int failedIndex) {
+        BulkWriteError error = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), failedIndex);
+        return new BulkOperationException("bulk write failed", new MongoBulkWriteException(
+            BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+}
@@ -0,0 +1,117 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DelayedRetryInterceptorTest {
+
+    private static final String QUEUE = "notification-service-order-created";
+    private static final String PARKING_LOT = "notification-service-parking-lot";
+
+    private ConfirmedPublisher publisher;
+    private DelayedRetryInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        publisher = mock(ConfirmedPublisher.class);
+        interceptor = new DelayedRetryInterceptor(publisher);
+        ReflectionTestUtils.setField(interceptor, "parkingLotQueue", PARKING_LOT);
+        ReflectionTestUtils.setField(interceptor, "maxAttempts", 3);
+    }
+
+    @Test
+    void firstFailureGoesToFirstRetryQueue() throws Throwable {
+        Message message = message(null);
+
+        assertNull(interceptor.invoke(failingInvocation(message, new IllegalStateException("boom"))));
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(publisher).sendToQueue(eq(QUEUE + ".retry-1"), sent.capture());
+        assertEquals(1, (Integer) sent.getValue().getMessageProperties().getHeader(DelayedRetryInterceptor.RETRY_COUNT_HEADER));
+    }
+
+    @Test
+    void exhaustedRetriesAreParked() throws Throwable {
+        Message message = message(2);
+
+        interceptor.invoke(failingInvocation(message, new IllegalStateException("boom")));
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(publisher).sendToQueue(eq(PARKING_LOT), sent.capture());
+        MessageProperties properties = sent.getValue().getMessageProperties();
+        assertEquals(QUEUE, properties.getHeader(DelayedRetryInterceptor.ORIGINAL_QUEUE_HEADER));
+        assertEquals(IllegalStateException.class.getName(), properties.getHeader(DelayedRetryInterceptor.EXCEPTION_TYPE_HEADER));
+    }
+
+    @Test
+    void conversionFailuresAreParkedWithoutRetry() throws Throwable {
+        Message message = message(null);
+        Exception failure = new ListenerExecutionFailedException("failed",
+            new MessageConversionException("bad envelope"), message);
+
+        interceptor.invoke(failingInvocation(message, failure));
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(publisher).sendToQueue(eq(PARKING_LOT), sent.capture());
+        assertEquals(MessageConversionException.class.getName(),
+            sent.getValue().getMessageProperties().getHeader(DelayedRetryInterceptor.EXCEPTION_TYPE_HEADER));
+    }
+
+    @Test
+    void failureToMoveMessageIsRethrownSoItIsRequeued() throws Throwable {
+        Message message = message(null);
+        doThrow(new AmqpException("broker down")).when(publisher).sendToQueue(any(), any());
+
+        assertThrows(AmqpException.class,
+            () -> interceptor.invoke(failingInvocation(message, new IllegalStateException("boom"))));
+    }
+
+    @Test
+    void parkingLotFailuresAreHeldOnItsDelayQueue() throws Throwable {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(PARKING_LOT);
+        properties.setMessageId("message-1");
+        Message message = new Message("{}".getBytes(), properties);
+
+        assertNull(interceptor.invoke(failingInvocation(message, new IllegalStateException("mongo down"))));
+
+        verify(publisher).sendToQueue(PARKING_LOT + ".retry-1", message);
+    }
+
+    @Test
+    void retryDelayBacksOffUpToMaxInterval() {
+        assertEquals(1000, DelayedRetryInterceptor.retryDelayMillis(1, 1000, 2.0, 10000));
+        assertEquals(4000, DelayedRetryInterceptor.retryDelayMillis(3, 1000, 2.0, 10000));
+        assertEquals(10000, DelayedRetryInterceptor.retryDelayMillis(6, 1000, 2.0, 10000));
+    }
+
+    private static Message message(Integer retryCount) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(QUEUE);
+        properties.setMessageId("message-1");
+        if (retryCount != null) {
+            properties.setHeader(DelayedRetryInterceptor.RETRY_COUNT_HEADER, retryCount);
+        }
+        return new Message("{}".getBytes(), properties);
+    }
+
+    private static MethodInvocation failingInvocation(Message message, Throwable failure) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(new Object[] {null, message});
+        when(invocation.proceed()).thenThrow(failure);
+        return invocation;
+    }
+}
@@ -0,0 +1,150 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ListenerConcurrencyControllerTest {
+
+    private static final String QUEUE = "notification-service-order-created";
+    private static final long BACKLOG = 1_000;
+
+    private ListenerConcurrencyController controller;
+    private ListenerActivityTracker.QueueActivity activity;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ListenerConcurrencyController(mock(RabbitListenerEndpointRegistry.class),
+            mock(AmqpAdmin.class), new ListenerActivityTracker(), new SimpleMeterRegistry(),
+            mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(controller, "minConsumers", 1);
+        ReflectionTestUtils.setField(controller, "maxConsumers", 5);
+        ReflectionTestUtils.setField(controller, "scaleUpStep", 2);
+        ReflectionTestUtils.setField(controller, "backlogPerConsumer", 100L);
+        ReflectionTestUtils.setField(controller, "targetLatency", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(controller, "scaleDownUtilization", 0.3);
+        ReflectionTestUtils.setField(controller, "scaleUpSamples", 2);
+        ReflectionTestUtils.setField(controller, "scaleDownSamples", 3);
+        ReflectionTestUtils.setField(controller, "cooldown", Duration.ofSeconds(30));
+        activity = new ListenerActivityTracker.QueueActivity();
+    }
+
+    @Test
+    void scalesUpOnlyAfterConsecutiveBackloggedSamples() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(1);
+        assertNull(sample(state, BACKLOG, 1));
+        assertNull(sample(state, BACKLOG, 40));
+
+        ListenerConcurrencyChangedEvent event = sample(state, BACKLOG, 45);
+
+        assertNotNull(event);
+        assertEquals("UP", event.direction());
+        assertEquals(1, event.previousConsumers());
+        assertEquals(3, event.consumers());
+        assertEquals(3, state.consumers());
+    }
+
+    @Test
+    void interruptedStreakDoesNotScale() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(1);
+        sample(state, BACKLOG, 1);
+        assertNull(sample(state, BACKLOG, 40));
+        assertNull(sample(state, 0, 45));
+        assertNull(sample(state, BACKLOG, 50));
+
+        assertNotNull(sample(state, BACKLOG, 55));
+    }
+
+    @Test
+    void firstSampleStartsCooldown() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(1);
+        sample(state, BACKLOG, 1);
+        assertNull(sample(state, BACKLOG, 5));
+        assertNull(sample(state, BACKLOG, 10));
+
+        assertNotNull(sample(state, BACKLOG, 31));
+    }
+
+    @Test
+    void cooldownHoldsOffTheNextChange() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(1);
+        sample(state, BACKLOG, 1);
+        sample(state, BACKLOG, 40);
+        assertNotNull(sample(state, BACKLOG, 45));
+
+        assertNull(sample(state, BACKLOG, 50));
+        assertNull(sample(state, BACKLOG, 55));
+        assertNull(sample(state, BACKLOG, 70));
+
+        ListenerConcurrencyChangedEvent event = sample(state, BACKLOG, 75);
+        assertNotNull(event);
+        assertEquals(5, event.consumers());
+    }
+
+    @Test
+    void neverScalesPastMaxConsumers() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(4);
+        sample(state, BACKLOG, 1);
+        sample(state, BACKLOG, 40);
+        assertEquals(5, sample(state, BACKLOG, 45).consumers());
+
+        for (int t = 80; t < 300; t += 5) {
+            assertNull(sample(state, BACKLOG, t));
+        }
+        assertEquals(5, state.consumers());
+    }
+
+    @Test
+    void scalesDownOneConsumerAtATimeWhenIdle() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(3);
+        sample(state, 0, 1);
+        assertNull(sample(state, 0, 40));
+        assertNull(sample(state, 0, 45));
+
+        ListenerConcurrencyChangedEvent event = sample(state, 0, 50);
+
+        assertNotNull(event);
+        assertEquals("DOWN", event.direction());
+        assertEquals(2, event.consumers());
+    }
+
+    @Test
+    void neverScalesBelowMinConsumers() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(1);
+        sample(state, 0, 1);
+
+        for (int t = 40; t < 300; t += 5) {
+            assertNull(sample(state, 0, t));
+        }
+        assertEquals(1, state.consumers());
+    }
+
+    @Test
+    void busyConsumersAreNotScaledDown() {
+        ListenerConcurrencyController.QueueState state = new ListenerConcurrencyController.QueueState(2);
+        sample(state, 0, 1);
+
+        for (int t = 40; t < 100; t += 5) {
+            // Both consumers spent the whole interval sending email
+            activity.record(TimeUnit.SECONDS.toNanos(5));
+            activity.record(TimeUnit.SECONDS.toNanos(5));
+            assertNull(sample(state, 0, t));
+        }
+        assertEquals(2, state.consumers());
+    }
+
+    private ListenerConcurrencyChangedEvent sample(ListenerConcurrencyController.QueueState state,
+                                                   long depth, int atSeconds) {
+        return controller.evaluate(QUEUE, state, depth, activity, TimeUnit.SECONDS.toNanos(atSeconds));
+    }
+}
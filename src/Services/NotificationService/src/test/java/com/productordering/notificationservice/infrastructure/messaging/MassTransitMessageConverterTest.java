@@ -0,0 +1,55 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.productordering.notificationservice.application.messaging.events.NotificationSentEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MassTransitMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final MassTransitMessageConverter converter = new MassTransitMessageConverter(objectMapper);
+
+    @Test
+    void wrapsOutgoingMessageInMassTransitEnvelope() throws Exception {
+        NotificationSentEvent event = new NotificationSentEvent();
+        event.setNotificationId("n-1");
+        event.setOrderId(UUID.randomUUID());
+        event.setSentAt(Instant.now());
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId("message-1");
+
+        Message message = converter.toMessage(event, properties);
+        JsonNode envelope = objectMapper.readTree(message.getBody());
+
+        assertEquals(MassTransitMessageConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals("message-1", envelope.get("messageId").asText());
+        assertEquals("urn:message:ProductOrderingSystem.Shared.Contracts.Events:NotificationSentEvent",
+            envelope.get("messageType").get(0).asText());
+        assertEquals("n-1", envelope.get("message").get("notificationId").asText());
+        assertEquals(event.getOrderId().toString(), envelope.get("message").get("orderId").asText());
+    }
+
+    @Test
+    void unwrapsItsOwnEnvelope() {
+        NotificationSentEvent event = new NotificationSentEvent();
+        event.setNotificationId("n-2");
+        event.setRecipient("customer@example.com");
+
+        Message message = converter.toMessage(event, new MessageProperties());
+        Object result = converter.fromMessage(message, NotificationSentEvent.class);
+
+        assertEquals(event, result);
+    }
+}
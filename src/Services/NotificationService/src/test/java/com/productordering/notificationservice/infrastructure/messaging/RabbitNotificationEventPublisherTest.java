@@ -0,0 +1,219 @@
+package com.productordering.notificationservice.infrastructure.messaging;
+
+import com.productordering.notificationservice.domain.entities.Notification;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RabbitNotificationEventPublisherTest {
+
+    private static final String SENT_EXCHANGE = "notification-sent";
+    private static final String FAILED_EXCHANGE = "notification-failed";
+
+    private RabbitTemplate rabbitTemplate;
+    private RabbitOperations operations;
+    private SimpleMeterRegistry meterRegistry;
+    private RabbitNotificationEventPublisher publisher;
+    private RabbitTemplate.ConfirmCallback confirmCallback;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        operations = mock(RabbitOperations.class);
+        MessageConverter converter = mock(MessageConverter.class);
+        when(converter.toMessage(any(), any(MessageProperties.class)))
+            .thenAnswer(invocation -> new Message(new byte[0], invocation.getArgument(1)));
+        when(rabbitTemplate.getMessageConverter()).thenReturn(converter);
+        when(rabbitTemplate.invoke(ArgumentMatchers.<RabbitOperations.OperationsCallback<Object>>any()))
+            .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<Object>>getArgument(0)
+                .doInRabbit(operations));
+
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new RabbitNotificationEventPublisher(rabbitTemplate, meterRegistry);
+        ReflectionTestUtils.setField(publisher, "notificationSentExchange", SENT_EXCHANGE);
+        ReflectionTestUtils.setField(publisher, "notificationFailedExchange", FAILED_EXCHANGE);
+        ReflectionTestUtils.setField(publisher, "batchSize", 100);
+        ReflectionTestUtils.setField(publisher, "maxPending", 10);
+        ReflectionTestUtils.setField(publisher, "enqueueTimeout", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(publisher, "confirmTimeout", Duration.ofSeconds(30));
+        publisher.init();
+
+        ArgumentCaptor<RabbitTemplate.ConfirmCallback> callback =
+            ArgumentCaptor.forClass(RabbitTemplate.ConfirmCallback.class);
+        verify(rabbitTemplate).setConfirmCallback(callback.capture());
+        confirmCallback = callback.getValue();
+    }
+
+    @Test
+    void nackedEventIsRetriedWithTheSameMessageId() {
+        publisher.publishOutcome(sent());
+        publisher.flush();
+        Sent first = lastSend(1);
+
+        confirmCallback.confirm(first.correlation(), false, "queue full");
+        publisher.flush();
+
+        Sent retried = lastSend(2);
+        assertEquals(SENT_EXCHANGE, retried.exchange());
+        assertEquals(first.messageId(), retried.messageId());
+        assertNotEquals(first.correlation().getId(), retried.correlation().getId());
+    }
+
+    @Test
+    void ackedEventIsNotRetried() {
+        publisher.publishOutcome(failed());
+        publisher.flush();
+
+        confirmCallback.confirm(lastSend(1).correlation(), true, null);
+        publisher.flush();
+
+        verify(operations, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(0.0, pending());
+    }
+
+    @Test
+    void unconfirmedEventIsRetriedWithTheSameMessageIdAfterConfirmTimeout() throws InterruptedException {
+        ReflectionTestUtils.setField(publisher, "confirmTimeout", Duration.ZERO);
+        publisher.publishOutcome(sent());
+        publisher.flush();
+        Sent first = lastSend(1);
+
+        Thread.sleep(2);
+        publisher.flush();
+        ReflectionTestUtils.setField(publisher, "confirmTimeout", Duration.ofSeconds(30));
+
+        Sent retried = lastSend(2);
+        assertEquals(first.messageId(), retried.messageId());
+
+        // A late confirm for the timed-out publish must not settle the retry
+        confirmCallback.confirm(first.correlation(), true, null);
+        assertEquals(1.0, pending());
+        confirmCallback.confirm(retried.correlation(), true, null);
+        assertEquals(0.0, pending());
+    }
+
+    @Test
+    void retriesArePublishedAheadOfNewEvents() {
+        publisher.publishOutcome(sent());
+        publisher.flush();
+        Sent nacked = lastSend(1);
+        confirmCallback.confirm(nacked.correlation(), false, "queue full");
+
+        publisher.publishOutcome(failed());
+        publisher.flush();
+
+        List<Sent> sends = sends(3);
+        assertEquals(nacked.messageId(), sends.get(1).messageId());
+        assertEquals(FAILED_EXCHANGE, sends.get(2).exchange());
+    }
+
+    @Test
+    void partiallyPublishedBatchIsRetriedInFull() {
+        doNothing()
+            .doThrow(new AmqpException("channel closed"))
+            .doNothing()
+            .when(operations).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        publisher.publishOutcome(sent());
+        publisher.publishOutcome(sent());
+        publisher.publishOutcome(sent());
+
+        // The first event reached the broker and awaits a confirm, the second failed mid-send
+        // and the third was never attempted; all three must go out again, in order
+        publisher.flush();
+        publisher.flush();
+
+        List<Sent> sends = sends(5);
+        assertEquals(sends.get(0).messageId(), sends.get(2).messageId());
+        assertEquals(sends.get(1).messageId(), sends.get(3).messageId());
+        assertNotEquals(sends.get(3).messageId(), sends.get(4).messageId());
+        assertEquals(3.0, pending());
+
+        // The first attempt's confirm arrives after the batch was retried and is ignored
+        confirmCallback.confirm(sends.get(0).correlation(), true, null);
+        assertEquals(3.0, pending());
+    }
+
+    @Test
+    void droppedEventsAreCounted() {
+        ReflectionTestUtils.setField(publisher, "maxPending", 1);
+        publisher.init();
+
+        publisher.publishOutcome(sent());
+        publisher.publishOutcome(sent());
+
+        assertEquals(1.0, dropped("buffer-full"));
+
+        doThrow(new AmqpException("connection refused"))
+            .when(operations).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        publisher.shutdown();
+
+        assertEquals(1.0, dropped("shutdown"));
+    }
+
+    private Sent lastSend(int expectedSends) {
+        List<Sent> sends = sends(expectedSends);
+        return sends.get(sends.size() - 1);
+    }
+
+    private List<Sent> sends(int expectedSends) {
+        ArgumentCaptor<String> exchange = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(operations, times(expectedSends))
+            .send(exchange.capture(), anyString(), message.capture(), correlation.capture());
+        return IntStream.range(0, expectedSends)
+            .mapToObj(i -> new Sent(exchange.getAllValues().get(i),
+                message.getAllValues().get(i).getMessageProperties().getMessageId(),
+                correlation.getAllValues().get(i)))
+            .toList();
+    }
+
+    private double pending() {
+        return meterRegistry.get("notification.events.pending").gauge().value();
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("notification.events.dropped").tag("reason", reason).counter().count();
+    }
+
+    private static Notification sent() {
+        Notification notification = notification();
+        notification.markAsSent();
+        return notification;
+    }
+
+    private static Notification failed() {
+        Notification notification = notification();
+        notification.markAsFailed("smtp unavailable");
+        return notification;
+    }
+
+    private static Notification notification() {
+        return Notification.create(UUID.randomUUID(), UUID.randomUUID(), NotificationType.ORDER_CONFIRMATION,
+            "customer@example.com", "subject", "body");
+    }
+
+    private record Sent(String exchange, String messageId, CorrelationData correlation) {
+    }
+}
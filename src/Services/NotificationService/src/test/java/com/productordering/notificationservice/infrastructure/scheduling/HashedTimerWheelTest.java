@@ -0,0 +1,66 @@
+package com.productordering.notificationservice.infrastructure.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    private HashedTimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimerWheel("test-timer-wheel", Duration.ofMillis(10), 8, Runnable::run);
+        wheel.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void firesTimeoutAfterDeadline() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        Instant deadline = Instant.now().plusMillis(200);
+
+        HashedTimerWheel.Timeout timeout = wheel.schedule(deadline, fired::countDown);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertFalse(Instant.now().isBefore(deadline));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void firesPastDeadlineOnNextTick() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+
+        wheel.schedule(Instant.now().minusSeconds(60), fired::countDown);
+
+        assertTrue(fired.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotFire() throws InterruptedException {
+        AtomicBoolean fired = new AtomicBoolean();
+
+        HashedTimerWheel.Timeout timeout = wheel.schedule(Instant.now().plusMillis(100), () -> fired.set(true));
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, wheel.pendingTimeouts());
+
+        Thread.sleep(300);
+        assertFalse(fired.get());
+        assertTrue(timeout.isCancelled());
+    }
+}
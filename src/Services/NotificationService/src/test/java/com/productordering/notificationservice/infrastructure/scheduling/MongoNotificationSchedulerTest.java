@@ -0,0 +1,208 @@
+package com.productordering.notificationservice.infrastructure.scheduling;
+
+import com.productordering.notificationservice.application.services.NotificationService;
+import com.productordering.notificationservice.domain.entities.ScheduledNotification;
+import com.productordering.notificationservice.domain.enums.NotificationType;
+import com.productordering.notificationservice.domain.enums.ScheduledNotificationStatus;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MongoNotificationSchedulerTest {
+
+    private MongoTemplate mongoTemplate;
+    private NotificationService notificationService;
+    private MongoNotificationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        notificationService = mock(NotificationService.class);
+        when(mongoTemplate.indexOps(ScheduledNotification.class)).thenReturn(mock(IndexOperations.class));
+
+        scheduler = new MongoNotificationScheduler(mongoTemplate, notificationService);
+        ReflectionTestUtils.setField(scheduler, "tickDuration", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(scheduler, "ticksPerWheel", 8);
+        ReflectionTestUtils.setField(scheduler, "horizon", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(scheduler, "leaseDuration", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(scheduler, "claimBatchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "maxInMemory", 100);
+        ReflectionTestUtils.setField(scheduler, "dispatchThreads", 1);
+        ReflectionTestUtils.setField(scheduler, "maxAttempts", 3);
+        ReflectionTestUtils.setField(scheduler, "completedRetention", Duration.ofDays(7));
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void scheduleOnlyReplacesLiveTimersDueAtADifferentTime() {
+        ScheduledNotification reminder = reminder("payment-reminder:1", Instant.now().plus(Duration.ofHours(24)));
+        assertTrue(scheduler.schedule(reminder));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).upsert(query.capture(), any(Update.class), eq(ScheduledNotification.class));
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals("payment-reminder:1", criteria.get("_id"));
+        assertEquals(List.of(ScheduledNotificationStatus.PENDING, ScheduledNotificationStatus.CLAIMED),
+            criteria.get("status", Document.class).get("$in"));
+        // A redelivery with the same dueAt must not match, or it would reset the attempt count
+        assertEquals(reminder.getDueAt(), criteria.get("dueAt", Document.class).get("$ne"));
+    }
+
+    @Test
+    void scheduleDoesNotReviveFiredOrCancelledTimer() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ScheduledNotification.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertFalse(scheduler.schedule(reminder("order-pending-reminder:1", Instant.now())));
+
+        verify(notificationService, after(200).never()).sendScheduledNotification(any());
+        assertEquals(0, wheel().pendingTimeouts());
+    }
+
+    @Test
+    void cancelLeavesTombstoneForKeyNotScheduledYet() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ScheduledNotification.class)))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertFalse(scheduler.cancel("order-pending-reminder:1"));
+
+        ArgumentCaptor<ScheduledNotification> tombstone = ArgumentCaptor.forClass(ScheduledNotification.class);
+        verify(mongoTemplate).insert(tombstone.capture());
+        assertEquals("order-pending-reminder:1", tombstone.getValue().getId());
+        assertEquals(ScheduledNotificationStatus.CANCELLED, tombstone.getValue().getStatus());
+        assertNotNull(tombstone.getValue().getCompletedAt());
+    }
+
+    @Test
+    void claimDueTimersClaimsInBatchesAndArmsOnlyTimersItWon() {
+        Instant dueAt = Instant.now().plus(Duration.ofMinutes(1));
+        when(mongoTemplate.find(any(Query.class), eq(ScheduledNotification.class))).thenReturn(
+            List.of(candidate("a"), candidate("b")),
+            List.of(reminder("a", dueAt)),   // "b" went to another replica
+            List.of(candidate("c")),
+            List.of(reminder("c", dueAt)),
+            List.of());
+
+        scheduler.claimDueTimers();
+
+        ArgumentCaptor<Query> claims = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(claims.capture(), updates.capture(), eq(ScheduledNotification.class));
+        assertEquals(2, wheel().pendingTimeouts());
+
+        List<Document> claim = claims.getAllValues().get(0).getQueryObject().getList("$and", Document.class);
+        assertEquals(List.of("a", "b"), claim.get(0).get("_id", Document.class).get("$in"));
+        List<Document> claimable = claim.get(1).getList("$or", Document.class);
+        assertTrue(claimable.get(1).get("leaseExpiresAt", Document.class).containsKey("$lt"),
+            "expired leases are reclaimable");
+        Document set = updates.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(ScheduledNotificationStatus.CLAIMED, set.get("status"));
+        assertNotNull(set.get("leaseExpiresAt"));
+    }
+
+    @Test
+    void claimDueTimersStopsWhenNothingIsDue() {
+        when(mongoTemplate.find(any(Query.class), eq(ScheduledNotification.class))).thenReturn(List.of());
+
+        scheduler.claimDueTimers();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(ScheduledNotification.class));
+        assertEquals(0, wheel().pendingTimeouts());
+    }
+
+    @Test
+    void timerIsMarkedFiredOnlyAfterSuccessfulSend() {
+        ScheduledNotification due = reminder("payment-reminder:1", Instant.now());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScheduledNotification.class))).thenReturn(firing(due, 1));
+
+        scheduler.schedule(due);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        InOrder inOrder = inOrder(notificationService, mongoTemplate);
+        inOrder.verify(notificationService, timeout(2000)).sendScheduledNotification(any());
+        inOrder.verify(mongoTemplate, timeout(2000))
+            .updateFirst(any(Query.class), update.capture(), eq(ScheduledNotification.class));
+        assertEquals(ScheduledNotificationStatus.FIRED,
+            update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+    }
+
+    @Test
+    void failedSendKeepsLeaseSoTimerIsRetried() {
+        ScheduledNotification due = reminder("payment-reminder:1", Instant.now());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScheduledNotification.class))).thenReturn(firing(due, 1));
+        doThrow(new IllegalStateException("provider down")).when(notificationService).sendScheduledNotification(any());
+
+        scheduler.schedule(due);
+
+        verify(notificationService, timeout(2000)).sendScheduledNotification(any());
+        verify(mongoTemplate, after(200).never())
+            .updateFirst(any(Query.class), any(Update.class), eq(ScheduledNotification.class));
+    }
+
+    @Test
+    void failedSendGivesUpAfterMaxAttempts() {
+        ScheduledNotification due = reminder("payment-reminder:1", Instant.now());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScheduledNotification.class))).thenReturn(firing(due, 3));
+        doThrow(new IllegalStateException("provider down")).when(notificationService).sendScheduledNotification(any());
+
+        scheduler.schedule(due);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, timeout(2000))
+            .updateFirst(any(Query.class), update.capture(), eq(ScheduledNotification.class));
+        assertEquals(ScheduledNotificationStatus.FAILED,
+            update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+    }
+
+    private HashedTimerWheel wheel() {
+        return (HashedTimerWheel) ReflectionTestUtils.getField(scheduler, "wheel");
+    }
+
+    private static ScheduledNotification reminder(String key, Instant dueAt) {
+        return ScheduledNotification.create(key, NotificationType.PAYMENT_REMINDER, null, UUID.randomUUID(),
+            Map.of(), dueAt);
+    }
+
+    private static ScheduledNotification candidate(String key) {
+        ScheduledNotification candidate = new ScheduledNotification();
+        candidate.setId(key);
+        return candidate;
+    }
+
+    private static ScheduledNotification firing(ScheduledNotification due, int attempts) {
+        ScheduledNotification firing = reminder(due.getId(), due.getDueAt());
+        firing.setStatus(ScheduledNotificationStatus.CLAIMED);
+        firing.setAttempts(attempts);
+        return firing;
+    }
+}
@@ -94,4 +94,24 @@ namespace ProductOrderingSystem.Shared.Contracts.Events
         string LastName,
         DateTime UpdatedAt
     );
+
+    // Notification Service Events (published by the Java NotificationService)
+    public record NotificationSentEvent(
+        string NotificationId,
+        Guid? OrderId,
+        Guid? UserId,
+        string NotificationType,
+        string Recipient,
+        DateTime SentAt
+    );
+
+    public record NotificationFailedEvent(
+        string NotificationId,
+        Guid? OrderId,
+        Guid? UserId,
+        string NotificationType,
+        string Recipient,
+        string? Reason,
+        DateTime FailedAt
+    );
 }